@@ -0,0 +1,180 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * compare a JMH csv result file against the stored baseline and fail if anything regressed
+ *
+ * throughput must not drop, and allocation per operation (gc.alloc.rate.norm) must not grow, by more than the
+ * tolerance. A result with no baseline row fails too, so that a new benchmark isn't silently left unchecked.
+ * Allocation per operation is largely independent of the machine; throughput is not, so regenerate the baseline when
+ * moving to different hardware, or after adding a benchmark:
+ *
+ * cp target/jmh-result.csv src/jmh/baseline/jmh-baseline.csv
+ *
+ * usage: BaselineComparator baseline.csv result.csv tolerance
+ *
+ * @author bobt
+ *
+ */
+public class BaselineComparator {
+  private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+  // allocation can wobble by a few bytes per operation for reasons that have nothing to do with our code
+  private static final double ALLOC_SLACK_BYTES = 64;
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      System.err.println("usage: BaselineComparator baseline.csv result.csv [tolerance]");
+      System.exit(2);
+    }
+
+    Path baselinePath = Path.of(args[0]);
+    Path resultPath = Path.of(args[1]);
+    double tolerance = (args.length > 2) ? Double.parseDouble(args[2]) : 0.20;
+
+    if (!Files.exists(baselinePath)) {
+      System.out.println("no baseline at " + baselinePath + ", nothing to compare. To create one: cp " + resultPath
+          + " " + baselinePath);
+      return;
+    }
+
+    Map<String, Double> baselineMap = read(baselinePath);
+    Map<String, Double> resultMap = read(resultPath);
+
+    List<String> regressions = new ArrayList<>();
+    List<String> missing = new ArrayList<>();
+    for (String key : resultMap.keySet()) {
+      double result = resultMap.get(key);
+      boolean isAllocation = key.contains(ALLOC_NORM);
+      boolean isPrimary = !key.contains(":");
+      if (!isAllocation && !isPrimary) {
+        continue;
+      }
+
+      Double baseline = baselineMap.get(key);
+      if (baseline == null) {
+        System.out.println(String.format("MISSING    %-100s result: %14.2f, no baseline", key, result));
+        missing.add(key);
+        continue;
+      }
+
+      boolean isRegression;
+      if (isAllocation) {
+        isRegression = result > baseline * (1 + tolerance) + ALLOC_SLACK_BYTES;
+      } else {
+        isRegression = result < baseline * (1 - tolerance);
+      }
+
+      String line = String.format("%-100s baseline: %14.2f result: %14.2f (%+.1f%%)", key, baseline, result,
+          (baseline == 0) ? 0 : 100 * (result - baseline) / baseline);
+      System.out.println((isRegression ? "REGRESSION " : "ok         ") + line);
+      if (isRegression) {
+        regressions.add(key);
+      }
+    }
+
+    if (missing.size() > 0) {
+      System.out.println(missing.size() + " result(s) missing from " + baselinePath + ". To add them, refresh it: cp "
+          + resultPath + " " + baselinePath);
+    }
+    if (regressions.size() > 0) {
+      System.out.println(regressions.size() + " regression(s) against " + baselinePath);
+    }
+    if (missing.size() > 0 || regressions.size() > 0) {
+      System.exit(1);
+    }
+    System.out.println("no regressions against " + baselinePath);
+  }
+
+  /**
+   * @param path
+   * @return map of benchmark[params] to score
+   * @throws Exception
+   */
+  static Map<String, Double> read(Path path) throws Exception {
+    Map<String, Double> map = new LinkedHashMap<>();
+    List<String> lines = Files.readAllLines(path);
+    if (lines.size() == 0) {
+      return map;
+    }
+
+    List<String> header = split(lines.get(0));
+    int scoreIndex = header.indexOf("Score");
+    for (String line : lines.subList(1, lines.size())) {
+      List<String> fields = split(line);
+      if (fields.size() <= scoreIndex) {
+        continue;
+      }
+
+      StringBuilder key = new StringBuilder(fields.get(0));
+      List<String> params = new ArrayList<>();
+      for (int i = 0; i < header.size() && i < fields.size(); ++i) {
+        String name = header.get(i);
+        if (name.startsWith("Param: ") && !fields.get(i).isEmpty()) {
+          params.add(name.substring("Param: ".length()) + "=" + fields.get(i));
+        }
+      }
+      if (params.size() > 0) {
+        key.append(params);
+      }
+
+      try {
+        map.put(key.toString(), Double.parseDouble(fields.get(scoreIndex)));
+      } catch (NumberFormatException e) {
+        continue;
+      }
+    }
+    return map;
+  }
+
+  private static List<String> split(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder sb = new StringBuilder();
+    boolean isQuoted = false;
+    for (char c : line.toCharArray()) {
+      if (c == '"') {
+        isQuoted = !isQuoted;
+      } else if (c == ',' && !isQuoted) {
+        fields.add(sb.toString());
+        sb.setLength(0);
+      } else {
+        sb.append(c);
+      }
+    }
+    fields.add(sb.toString());
+    return fields;
+  }
+}
@@ -0,0 +1,141 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.surftools.wfv.config.AbstractConfigurationManager;
+import com.surftools.wfv.config.ConfigurationKey;
+import com.surftools.wfv.config.IConfigurationManager;
+
+/**
+ * inputs shared by the benchmarks: the sample view files, synthetic views and a synthetic forms directory
+ *
+ * @author bobt
+ *
+ */
+public class BenchmarkFixture {
+  public static final String SAMPLE_VIEW_DIR_NAME = "conf/sample-view-files";
+  public static final String SYNTHETIC_PREFIX = "synthetic-";
+
+  // roughly the shape of the Standard Templates: a few hundred forms in a couple dozen directories
+  private static final int FILLER_DIR_COUNT = 24;
+  private static final int FILLER_FORMS_PER_DIR = 20;
+
+  static class BenchmarkConfigurationManager extends AbstractConfigurationManager {
+    void put(ConfigurationKey key, String value) {
+      map.put(key, value);
+    }
+  }
+
+  /**
+   * @param viewName
+   *          either the name of a file in conf/sample-view-files, or synthetic-N for a view with N variables
+   * @return
+   * @throws IOException
+   */
+  public static String getView(String viewName) throws IOException {
+    if (viewName.startsWith(SYNTHETIC_PREFIX)) {
+      return makeSyntheticView(Integer.parseInt(viewName.substring(SYNTHETIC_PREFIX.length())));
+    }
+    return Files.readString(Path.of(SAMPLE_VIEW_DIR_NAME, viewName));
+  }
+
+  public static String getSyntheticFormName(int variableCount) {
+    return "Synthetic_" + variableCount + "_Viewer.html";
+  }
+
+  public static String makeSyntheticView(int variableCount) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("<?xml version=\"1.0\"?>\n<RMS_Express_Form>\n  <form_parameters>\n");
+    sb.append("    <xml_file_version>1.0</xml_file_version>\n");
+    sb.append("    <senders_callsign>KM6SO</senders_callsign>\n");
+    sb.append("    <display_form>" + getSyntheticFormName(variableCount) + "</display_form>\n");
+    sb.append("    <reply_template></reply_template>\n");
+    sb.append("  </form_parameters>\n  <variables>\n");
+    for (int i = 0; i < variableCount; ++i) {
+      sb.append("    <Var" + i + ">value " + i + " with &quot;quotes&quot; &amp; an ampersand</Var" + i + ">\n");
+    }
+    sb.append("  </variables>\n</RMS_Express_Form>\n");
+    return sb.toString();
+  }
+
+  public static String makeSyntheticForm(int variableCount) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("<!DOCTYPE html>\n<html>\n<head><title>Synthetic</title>\n<style>td { padding: 2px; }</style></head>\n");
+    sb.append("<body>\n<table>\n");
+    for (int i = 0; i < variableCount; ++i) {
+      sb.append("<tr><td class=\"label\">Field number " + i + "</td>");
+      sb.append("<td><input type=\"text\" name=\"var" + i + "\" value=\"{var var" + i + "}\"></td></tr>\n");
+    }
+    sb.append("</table>\n<p>Sent by {var senders_callsign}</p>\n</body>\n</html>\n");
+    return sb.toString();
+  }
+
+  /**
+   * create a forms directory, laid out as FormUtils expects, with a form for every benchmark view
+   *
+   * @param formsPath
+   * @param variableCounts
+   * @throws IOException
+   */
+  public static void makeFormsDirectory(Path formsPath, int... variableCounts) throws IOException {
+    Path versionPath = Files.createDirectories(formsPath.resolve("StandardForms-10142"));
+    Files.writeString(versionPath.resolve("Standard_Forms_Version.dat"), "1.0.142.0");
+    Files.createSymbolicLink(formsPath.resolve("StandardForms"), versionPath.getFileName());
+
+    for (int d = 0; d < FILLER_DIR_COUNT; ++d) {
+      Path dirPath = Files.createDirectories(versionPath.resolve("Filler Forms " + d));
+      for (int f = 0; f < FILLER_FORMS_PER_DIR; ++f) {
+        Files.writeString(dirPath.resolve("Filler_" + d + "_" + f + "_Viewer.html"), makeSyntheticForm(5));
+      }
+    }
+
+    Path generalPath = Files.createDirectories(versionPath.resolve("General Forms"));
+    Files.writeString(generalPath.resolve("Quick Message Viewer.html"), makeSyntheticForm(20));
+    for (int variableCount : variableCounts) {
+      Files.writeString(generalPath.resolve(getSyntheticFormName(variableCount)), makeSyntheticForm(variableCount));
+    }
+  }
+
+  public static IConfigurationManager makeConfigurationManager(Path formsPath) {
+    BenchmarkConfigurationManager cm = new BenchmarkConfigurationManager();
+    cm.put(ConfigurationKey.FORMS_PATH, formsPath.toString());
+    return cm;
+  }
+
+  public static void delete(Path path) throws IOException {
+    try (Stream<Path> stream = Files.walk(path)) {
+      stream.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+}
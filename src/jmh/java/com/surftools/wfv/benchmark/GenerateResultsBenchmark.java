@@ -0,0 +1,90 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.surftools.wfv.config.IConfigurationManager;
+import com.surftools.wfv.forms.FormUtils;
+import com.surftools.wfv.tools.FormRenderer;
+import com.surftools.wfv.tools.FormRenderer.FormResults;
+
+/**
+ * the whole upload path: parse, find the form, read (or fetch from cache) and render
+ *
+ * @author bobt
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GenerateResultsBenchmark {
+
+  @Param({ "initialView.xml", "example-view.xml", "synthetic-10", "synthetic-100", "synthetic-1000" })
+  public String viewName;
+
+  private Path formsPath;
+  private FormRenderer formRenderer;
+  private String viewContent;
+
+  @Setup
+  public void setup() throws Exception {
+    formsPath = Files.createTempDirectory("fv-benchmark-forms");
+    BenchmarkFixture.makeFormsDirectory(formsPath, 10, 100, 1000);
+    IConfigurationManager cm = BenchmarkFixture.makeConfigurationManager(formsPath);
+    formRenderer = new FormRenderer(cm, new FormUtils(cm));
+    viewContent = BenchmarkFixture.getView(viewName);
+
+    FormResults results = formRenderer.generateResults(viewContent);
+    if (results.responseCode != 200) {
+      throw new IllegalStateException("can't render " + viewName + ": " + results.resultString);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    BenchmarkFixture.delete(formsPath);
+  }
+
+  @Benchmark
+  public FormResults generateResults() throws Exception {
+    return formRenderer.generateResults(viewContent);
+  }
+}
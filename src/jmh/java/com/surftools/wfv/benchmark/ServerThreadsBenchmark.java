@@ -0,0 +1,122 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.surftools.wfv.tools.ServerFactory;
+
+/**
+ * many concurrent clients against a server whose requests block, as they do reading a slow upload
+ *
+ * compares a small pool of platform threads with virtual threads; without virtual threads (before Java 21) both modes
+ * run the pool, and should score the same
+ *
+ * @author bobt
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class ServerThreadsBenchmark {
+  private static final byte[] BODY = "<html><body>ok</body></html>".getBytes(StandardCharsets.UTF_8);
+
+  @Param({ ServerFactory.MODE_POOL, ServerFactory.MODE_VIRTUAL })
+  public String mode;
+
+  @Param({ "16" })
+  public int maxThreads;
+
+  @Param({ "5" })
+  public int blockMillis;
+
+  private Server server;
+  private URL url;
+
+  @Setup
+  public void setup() throws Exception {
+    ServerFactory serverFactory = new ServerFactory(mode, maxThreads, maxThreads, 60000, 1024);
+    server = serverFactory.create(serverFactory.getThreadPool());
+    ServerConnector connector = new ServerConnector(server);
+    connector.setPort(0);
+    server.addConnector(connector);
+    server.setHandler(new AbstractHandler() {
+      @Override
+      public void handle(String target, Request baseRequest, HttpServletRequest request,
+          HttpServletResponse response) throws IOException {
+        try {
+          Thread.sleep(blockMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        response.setContentType("text/html");
+        response.getOutputStream().write(BODY);
+        baseRequest.setHandled(true);
+      }
+    });
+    server.start();
+    url = new URL("http://localhost:" + connector.getLocalPort() + "/");
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    server.stop();
+  }
+
+  @Benchmark
+  public int request() throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    try (InputStream inputStream = connection.getInputStream()) {
+      return inputStream.readAllBytes().length;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.surftools.wfv.forms.CompiledTemplate;
+import com.surftools.wfv.forms.WinlinkExpressTemplateProcessor;
+import com.surftools.wfv.forms.WinlinkExpressViewerStreamParser;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TemplateBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  public int variableCount;
+
+  private String formContent;
+  private CompiledTemplate compiledTemplate;
+  private Map<String, String> variableMap;
+  private String[] values;
+  private WinlinkExpressTemplateProcessor processor;
+
+  @Setup
+  public void setup() {
+    formContent = BenchmarkFixture.makeSyntheticForm(variableCount);
+    compiledTemplate = CompiledTemplate.compile(formContent);
+    WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    parser.parse(BenchmarkFixture.makeSyntheticView(variableCount), false);
+    variableMap = parser.getVariableMap();
+    values = parser.getValues();
+    processor = new WinlinkExpressTemplateProcessor();
+  }
+
+  @Benchmark
+  public String process() {
+    return processor.process(formContent, variableMap);
+  }
+
+  @Benchmark
+  public String processCompiled() {
+    return processor.process(compiledTemplate, variableMap);
+  }
+
+  @Benchmark
+  public String processValues() {
+    return processor.process(compiledTemplate, values);
+  }
+}
@@ -0,0 +1,73 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.surftools.wfv.forms.WinlinkExpressViewerParser;
+import com.surftools.wfv.forms.WinlinkExpressViewerStreamParser;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ViewParserBenchmark {
+
+  @Param({ "initialView.xml", "example-view.xml", "synthetic-10", "synthetic-100", "synthetic-1000" })
+  public String viewName;
+
+  private String viewContent;
+
+  @Setup
+  public void setup() throws Exception {
+    viewContent = BenchmarkFixture.getView(viewName);
+  }
+
+  @Benchmark
+  public Map<String, String> domParse() {
+    WinlinkExpressViewerParser parser = new WinlinkExpressViewerParser();
+    parser.parse(viewContent, false);
+    return parser.getVariableMap();
+  }
+
+  @Benchmark
+  public Map<String, String> streamParse() {
+    WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    parser.parse(viewContent, false);
+    return parser.getVariableMap();
+  }
+}
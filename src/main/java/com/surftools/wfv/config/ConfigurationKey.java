@@ -33,21 +33,40 @@ public enum ConfigurationKey {
   EMSG_INIT_HTML_NOT_FOUND("emsg.initial.html.not.found", "Initial HTML file: %s not found. Exiting!"), //
   EMSG_MULTIPLE_FORM_FILES_FOUND("emsg.multiple.form.files.found", "Multiple form files found matching %s. Exiting!"), //
   EMSG_NO_FORM_FILE_FOUND("emsg.no.form.file.found", "No form files found matching %s. Exiting!"), //
+  EMSG_FORM_NOT_AVAILABLE("emsg.form.not.available", "No unique form file found matching %s. Continuing!"), //
   EMSG_NO_UPLOAD_FILE("emsg.no.upload.file", "No file found in upload post. Continuing!"), //
+  EMSG_UPLOAD_TOO_LARGE("emsg.upload.too.large", "Upload larger than %s bytes. Continuing!"), //
   EMSG_PORT_IN_USE("emsg.port.in.use",
       "port: %s is already in use. Consider browsing to that port, terminating the application that is using that port, or changing the fv.conf server.port value to a different port number. Exiting!"), //
 
   FORMS_PATH("forms.path"), //
+  FORMS_CACHE_MAX_BYTES("forms.cache.maxBytes"), // upper bound on memory used for compiled forms
+  FORMS_SOURCE("forms.source"), // directory, or zip to read the forms in place from StandardForms.zip
   USAGE_FILE("usage.file"), //
 
   SERVER_INITIAL_HTML("server.initialHtml"), // for internal server
   SERVER_INITIAL_VIEW("server.initialView"), // the initial view to be displayed
   SERVER_404_HTML("server.404Html"), //
   SERVER_PORT("server.port"), //
+  SERVER_THREADS_MODE("server.threads.mode"), // pool or virtual
+  SERVER_THREADS_MIN("server.threads.min"), // smallest request thread pool
+  SERVER_THREADS_MAX("server.threads.max"), // largest request thread pool
+  SERVER_IDLE_TIMEOUT("server.idleTimeout"), // milliseconds before an idle pool thread exits
+  SERVER_ACCEPT_QUEUE("server.acceptQueue"), // connections waiting to be accepted, 0 for the OS default
+  SERVER_UPLOAD_MAX_BYTES("server.upload.maxBytes"), // largest view file accepted
+  SERVER_UPLOAD_FILE_SIZE_THRESHOLD("server.upload.fileSizeThreshold"), // multipart uploads above this go to disk
+  SERVER_ACCESS_LOG_QUEUE_SIZE("server.accessLog.queueSize"), // access log lines waiting to be written
+  SERVER_COMPRESSION_MIN_BYTES("server.compression.minBytes"), // smallest response to gzip, negative to disable
+  SERVER_RESULT_CACHE_MAX_BYTES("server.resultCache.maxBytes"), // bound on cached rendered uploads, 0 to disable
+  SERVER_RESULT_CACHE_TTL_SECONDS("server.resultCache.ttlSeconds"), // how long a rendered upload is cached
+  SERVER_BATCH_THREADS("server.batch.threads"), // workers rendering batch entries, 0 for the number of processors
+  SERVER_BATCH_MAX_BYTES("server.batch.maxBytes"), // largest batch accepted
+  SERVER_BATCH_MAX_ENTRIES("server.batch.maxEntries"), // most view files rendered from one batch
 
   FORMS_UPDATE_URL_PREFIX("forms.update.url.prefix"), //
   FORMS_UPDATE_URL_MAGIC("forms.update.url.magic"), //
   FORMS_DOWNLOAD_URL("forms.download.url"), //
+  FORMS_UPDATE_INTERVAL_HOURS("forms.update.intervalHours"), // how often the server checks for new forms, 0 to not
   ;
 
   private final String key;
@@ -0,0 +1,266 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * a form, tokenized once into literal segments and {var x} slots, that can be rendered in a single pass
+ *
+ * instances are immutable, so they can be shared across requests and threads
+ *
+ * each slot is bound to the SymbolTable id of its key when compiled, so it can be rendered from the values array of a
+ * WinlinkExpressViewerStreamParser, without looking anything up
+ *
+ * values are inserted as is: a value that itself contains a {var y} token is not expanded again, as the old
+ * replace-one-token-at-a-time loop did, depending on the order of the tokens in the form
+ *
+ * @author bobt
+ *
+ */
+public class CompiledTemplate {
+  private static final Logger logger = LoggerFactory.getLogger(CompiledTemplate.class);
+
+  private final static String regex = "\\{[vV][aA][rR] ([^}]++)\\}";
+  private final static Pattern pattern = Pattern.compile(regex);
+
+  // literals[i] precedes slot i; the last literal follows the last slot
+  private final String[] literals;
+  private final String[] tokens; // Ex: {var FiZz}
+  private final String[] keys; // Ex: fizz
+  private final int[] ids; // Ex: SymbolTable id of fizz
+  private final int literalLength;
+
+  private CompiledTemplate(String[] literals, String[] tokens, String[] keys) {
+    this.literals = literals;
+    this.tokens = tokens;
+    this.keys = keys;
+
+    SymbolTable symbolTable = SymbolTable.getDefault();
+    ids = new int[keys.length];
+    for (int i = 0; i < keys.length; ++i) {
+      ids[i] = symbolTable.intern(keys[i]);
+    }
+
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    literalLength = length;
+  }
+
+  /**
+   * rebuild a template that was compiled earlier, such as one read back from a FormPack
+   *
+   * @param literals
+   *          one more than the slots
+   * @param tokens
+   * @param keys
+   *          lower case
+   * @return
+   */
+  static CompiledTemplate of(String[] literals, String[] tokens, String[] keys) {
+    if (tokens.length != keys.length || literals.length != keys.length + 1) {
+      throw new IllegalArgumentException("expected " + (keys.length + 1) + " literals and " + keys.length
+          + " tokens, got " + literals.length + " literals and " + tokens.length + " tokens");
+    }
+    return new CompiledTemplate(literals, tokens, keys);
+  }
+
+  public static CompiledTemplate compile(String source) {
+    List<String> literalList = new ArrayList<>();
+    List<String> tokenList = new ArrayList<>();
+    List<String> keyList = new ArrayList<>();
+
+    Matcher matcher = pattern.matcher(source);
+    int position = 0;
+    while (matcher.find()) {
+      literalList.add(source.substring(position, matcher.start()));
+      tokenList.add(matcher.group());
+      keyList.add(matcher.group(1).toLowerCase());
+      position = matcher.end();
+    }
+    literalList.add(source.substring(position));
+
+    return new CompiledTemplate(literalList.toArray(new String[0]), tokenList.toArray(new String[0]),
+        keyList.toArray(new String[0]));
+  }
+
+  /**
+   * substitute values for each slot
+   *
+   * @param variableMap
+   *          keys are lower case
+   * @param doReplaceNotFoundWithEmptyString
+   *          if false, tokens without a value are left in place
+   * @return
+   */
+  public String render(Map<String, String> variableMap, boolean doReplaceNotFoundWithEmptyString) {
+    final int slotCount = keys.length;
+    final String[] values = new String[slotCount];
+    int length = literalLength;
+    for (int i = 0; i < slotCount; ++i) {
+      values[i] = getValue(i, variableMap, doReplaceNotFoundWithEmptyString);
+      length += values[i].length();
+    }
+
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < slotCount; ++i) {
+      sb.append(literals[i]);
+      sb.append(values[i]);
+    }
+    sb.append(literals[slotCount]);
+    return sb.toString();
+  }
+
+  /**
+   * substitute values for each slot, writing segments to out as we go, rather than building the whole result
+   *
+   * @param variableMap
+   *          keys are lower case
+   * @param doReplaceNotFoundWithEmptyString
+   *          if false, tokens without a value are left in place
+   * @param out
+   * @throws IOException
+   */
+  public void render(Map<String, String> variableMap, boolean doReplaceNotFoundWithEmptyString, Appendable out)
+      throws IOException {
+    final int slotCount = keys.length;
+    for (int i = 0; i < slotCount; ++i) {
+      out.append(literals[i]);
+      out.append(getValue(i, variableMap, doReplaceNotFoundWithEmptyString));
+    }
+    out.append(literals[slotCount]);
+  }
+
+  /**
+   * substitute values for each slot
+   *
+   * @param values
+   *          indexed by SymbolTable id, such as from WinlinkExpressViewerStreamParser.getValues()
+   * @param doReplaceNotFoundWithEmptyString
+   *          if false, tokens without a value are left in place
+   * @return
+   */
+  public String render(String[] values, boolean doReplaceNotFoundWithEmptyString) {
+    final int slotCount = ids.length;
+    final String[] slotValues = new String[slotCount];
+    int length = literalLength;
+    for (int i = 0; i < slotCount; ++i) {
+      slotValues[i] = getValue(i, values, doReplaceNotFoundWithEmptyString);
+      length += slotValues[i].length();
+    }
+
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < slotCount; ++i) {
+      sb.append(literals[i]);
+      sb.append(slotValues[i]);
+    }
+    sb.append(literals[slotCount]);
+    return sb.toString();
+  }
+
+  /**
+   * substitute values for each slot, writing segments to out as we go
+   *
+   * @param values
+   *          indexed by SymbolTable id, such as from WinlinkExpressViewerStreamParser.getValues()
+   * @param doReplaceNotFoundWithEmptyString
+   *          if false, tokens without a value are left in place
+   * @param out
+   * @throws IOException
+   */
+  public void render(String[] values, boolean doReplaceNotFoundWithEmptyString, Appendable out) throws IOException {
+    final int slotCount = ids.length;
+    for (int i = 0; i < slotCount; ++i) {
+      out.append(literals[i]);
+      out.append(getValue(i, values, doReplaceNotFoundWithEmptyString));
+    }
+    out.append(literals[slotCount]);
+  }
+
+  private String getValue(int i, String[] values, boolean doReplaceNotFoundWithEmptyString) {
+    // the values were sized before any forms compiled since, which can't have values
+    final int id = ids[i];
+    return toValue(i, (id < values.length) ? values[id] : null, doReplaceNotFoundWithEmptyString);
+  }
+
+  private String getValue(int i, Map<String, String> variableMap, boolean doReplaceNotFoundWithEmptyString) {
+    return toValue(i, variableMap.get(keys[i]), doReplaceNotFoundWithEmptyString);
+  }
+
+  private String toValue(int i, String value, boolean doReplaceNotFoundWithEmptyString) {
+    if (value == null) {
+      if (doReplaceNotFoundWithEmptyString) {
+        return "";
+      }
+      logger.warn("Source string contained an unsupported token: " + keys[i]);
+      return tokens[i];
+    }
+    return escape(value);
+  }
+
+  private static String escape(String value) {
+    if (value.indexOf('"') == -1) {
+      return value;
+    }
+    return value.replace("\"", "&quot;");
+  }
+
+  // the arrays are shared, not copied; callers in this package must not modify them
+  String[] getLiterals() {
+    return literals;
+  }
+
+  String[] getTokens() {
+    return tokens;
+  }
+
+  String[] getKeys() {
+    return keys;
+  }
+
+  public int getSlotCount() {
+    return keys.length;
+  }
+
+  /**
+   * @return the number of characters in the literal segments, a lower bound for the rendered length
+   */
+  public int getLiteralLength() {
+    return literalLength;
+  }
+}
@@ -0,0 +1,169 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * immutable index of form file name to canonical path, built by walking the forms directory once
+ *
+ * duplicate names are detected at build time, so a lookup never touches the disk
+ *
+ * @author bobt
+ *
+ */
+public class FormIndex {
+  private static final Logger logger = LoggerFactory.getLogger(FormIndex.class);
+
+  private final Path rootPath;
+  private final Map<String, Path> pathMap;
+  private final Map<String, List<Path>> duplicateMap;
+
+  private FormIndex(Path rootPath, Map<String, Path> pathMap, Map<String, List<Path>> duplicateMap) {
+    this.rootPath = rootPath;
+    this.pathMap = Collections.unmodifiableMap(pathMap);
+    this.duplicateMap = Collections.unmodifiableMap(duplicateMap);
+  }
+
+  public static FormIndex empty(Path rootPath) {
+    return new FormIndex(rootPath, new HashMap<>(), new HashMap<>());
+  }
+
+  /**
+   * walk the directory tree rooted at rootPath and index every regular file by name
+   *
+   * @param rootPath
+   * @return
+   * @throws IOException
+   */
+  public static FormIndex build(Path rootPath) throws IOException {
+    final long startMillis = System.currentTimeMillis();
+    final Map<String, Path> pathMap = new HashMap<>();
+    final Map<String, List<Path>> duplicateMap = new HashMap<>();
+
+    if (!Files.isDirectory(rootPath)) {
+      logger.warn("Forms directory: " + rootPath + " not found. Index is empty.");
+      return empty(rootPath);
+    }
+
+    try (Stream<Path> stream = Files.walk(rootPath)) {
+      stream.filter(Files::isRegularFile).forEach((f) -> {
+        String fileName = f.getFileName().toString();
+        Path canonicalPath = toCanonicalPath(f);
+        List<Path> duplicates = duplicateMap.get(fileName);
+        if (duplicates != null) {
+          duplicates.add(canonicalPath);
+          return;
+        }
+
+        Path existingPath = pathMap.putIfAbsent(fileName, canonicalPath);
+        if (existingPath != null) {
+          pathMap.remove(fileName);
+          duplicates = new ArrayList<>();
+          duplicates.add(existingPath);
+          duplicates.add(canonicalPath);
+          duplicateMap.put(fileName, duplicates);
+        }
+      });
+    }
+
+    if (pathMap.size() == 0) {
+      logger.warn("No form files found in forms directory: " + rootPath);
+    }
+
+    for (String fileName : new TreeSet<>(duplicateMap.keySet())) {
+      logger.warn("Multiple form files found matching " + fileName + ": " + duplicateMap.get(fileName));
+    }
+
+    logger
+        .info("indexed " + pathMap.size() + " form files, " + duplicateMap.size() + " duplicate names, from: "
+            + rootPath + " in " + (System.currentTimeMillis() - startMillis) + " msec");
+    return new FormIndex(rootPath, pathMap, duplicateMap);
+  }
+
+  private static Path toCanonicalPath(Path path) {
+    // such as an entry in a zip, which has no File, and no links to resolve
+    if (path.getFileSystem() != FileSystems.getDefault()) {
+      return path.toAbsolutePath().normalize();
+    }
+    try {
+      return path.toFile().getCanonicalFile().toPath();
+    } catch (IOException e) {
+      return path.toAbsolutePath().normalize();
+    }
+  }
+
+  /**
+   * return the canonical path for the form file with the given name
+   *
+   * @param fileName
+   * @return null if not found or if the name is not unique
+   */
+  public Path find(String fileName) {
+    return pathMap.get(fileName);
+  }
+
+  public boolean isDuplicate(String fileName) {
+    return duplicateMap.containsKey(fileName);
+  }
+
+  public Set<String> getDuplicateNames() {
+    return duplicateMap.keySet();
+  }
+
+  public Set<String> getNames() {
+    return pathMap.keySet();
+  }
+
+  public Path getRootPath() {
+    return rootPath;
+  }
+
+  public int size() {
+    return pathMap.size();
+  }
+
+  @Override
+  public String toString() {
+    return "{root: " + rootPath + ", forms: " + pathMap.size() + ", duplicates: " + duplicateMap.size() + "}";
+  }
+}
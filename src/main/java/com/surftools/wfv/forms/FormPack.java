@@ -0,0 +1,390 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.forms;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * every form under a StandardForms directory (or zip), compiled once and written to a single file, such as
+ * StandardForms-10142.pack, that the server memory-maps
+ *
+ * a template is rebuilt from the pack the first time it's asked for, without reading or tokenizing the form file.
+ * The pack itself stays outside the Java heap, and several servers reading the same pack share it through the page
+ * cache
+ *
+ * layout, big-endian:
+ *
+ * <pre>
+ * header:  int magic, int format, int formCount, int stringCount, int formsLength
+ * forms:   formCount times: int pathId, long lastModifiedMillis, long fileSize, int slotCount,
+ *          int[slotCount + 1] literalIds, int[slotCount] tokenIds, int[slotCount] keyIds
+ * strings: int[stringCount + 1] offsets into the data, then the UTF-8 data
+ * </pre>
+ *
+ * @author bobt
+ *
+ */
+public class FormPack {
+  private static final Logger logger = LoggerFactory.getLogger(FormPack.class);
+
+  static final int MAGIC = 0x46565031; // FVP1
+  static final int FORMAT = 1;
+  private static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+  private final Path packPath;
+  private final Path rootPath;
+  private final ByteBuffer buffer;
+  private final int offsetsStart;
+  private final int dataStart;
+
+  // form path, relative to the root and with / separators, to the position of its entry
+  private final Map<String, Integer> formMap;
+
+  private FormPack(Path packPath, Path rootPath, ByteBuffer buffer) throws IOException {
+    this.packPath = packPath;
+    this.rootPath = rootPath;
+    this.buffer = buffer;
+
+    if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IOException("not a form pack: " + packPath);
+    }
+    if (buffer.getInt(4) != FORMAT) {
+      throw new IOException("unsupported form pack format: " + buffer.getInt(4) + ", in: " + packPath);
+    }
+    int formCount = buffer.getInt(8);
+    int stringCount = buffer.getInt(12);
+    int formsLength = buffer.getInt(16);
+    if (formCount < 0 || stringCount < 0 || formsLength < 0) {
+      throw new IOException("damaged form pack: " + packPath + ", negative count or length in header");
+    }
+    long dataStartLong = HEADER_BYTES + (long) formsLength + (stringCount + 1L) * Integer.BYTES;
+    if (dataStartLong > buffer.capacity()) {
+      throw new IOException("truncated form pack: " + packPath);
+    }
+    offsetsStart = HEADER_BYTES + formsLength;
+    dataStart = (int) dataStartLong;
+
+    // everything get() will read is checked here, so a damaged pack is rejected rather than failing a request
+    int dataLength = buffer.capacity() - dataStart;
+    int previousOffset = 0;
+    for (int id = 0; id <= stringCount; ++id) {
+      int offset = buffer.getInt(offsetsStart + id * Integer.BYTES);
+      if (offset < previousOffset || offset > dataLength || (id == 0 && offset != 0)) {
+        throw new IOException("damaged form pack: " + packPath + ", bad offset for string: " + id);
+      }
+      previousOffset = offset;
+    }
+    if (previousOffset != dataLength) {
+      throw new IOException("truncated form pack: " + packPath);
+    }
+
+    Map<String, Integer> map = new HashMap<>(formCount * 2);
+    int position = HEADER_BYTES;
+    for (int i = 0; i < formCount; ++i) {
+      if (position + 24L > offsetsStart) {
+        throw new IOException("damaged form pack: " + packPath + ", form: " + i + " outside the forms");
+      }
+      int slotCount = buffer.getInt(position + 20);
+      long end = position + 24L + (3L * slotCount + 1) * Integer.BYTES;
+      if (slotCount < 0 || end > offsetsStart) {
+        throw new IOException("damaged form pack: " + packPath + ", form: " + i + " outside the forms");
+      }
+      // the path id, then the literal, token and key ids
+      checkId(packPath, buffer.getInt(position), stringCount, i);
+      for (int idPosition = position + 24; idPosition < end; idPosition += Integer.BYTES) {
+        checkId(packPath, buffer.getInt(idPosition), stringCount, i);
+      }
+      map.put(getString(buffer.getInt(position)), position);
+      position = (int) end;
+    }
+    if (position != offsetsStart) {
+      throw new IOException("damaged form pack: " + packPath + ", forms length: " + formsLength + ", but forms end at: "
+          + (position - HEADER_BYTES));
+    }
+    formMap = Collections.unmodifiableMap(map);
+  }
+
+  private static void checkId(Path packPath, int id, int stringCount, int formIndex) throws IOException {
+    if (id < 0 || id >= stringCount) {
+      throw new IOException("damaged form pack: " + packPath + ", form: " + formIndex + " has string id: " + id
+          + ", of " + stringCount);
+    }
+  }
+
+  /**
+   * @param source
+   *          the forms directory or zip, such as StandardForms-10142
+   * @return the pack for those forms, such as StandardForms-10142.pack
+   */
+  public static Path getPackPath(Path source) {
+    return source.resolveSibling(source.getFileName() + ".pack");
+  }
+
+  /**
+   * map the pack file
+   *
+   * @param packPath
+   * @param rootPath
+   *          the root of the forms the pack was built from; form paths are looked up relative to it
+   * @return
+   * @throws IOException
+   *           if the file can't be mapped, or isn't a form pack
+   */
+  public static FormPack open(Path packPath, Path rootPath) throws IOException {
+    final long startMillis = System.currentTimeMillis();
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(packPath, StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    FormPack pack = new FormPack(packPath, rootPath, buffer);
+    logger
+        .info("mapped " + pack.size() + " compiled forms, " + buffer.capacity() + " bytes, from: " + packPath + " in "
+            + (System.currentTimeMillis() - startMillis) + " msec");
+    return pack;
+  }
+
+  /**
+   * map the pack for source, if there is one; a pack that can't be read is ignored and the forms are compiled as
+   * they're used
+   *
+   * @param source
+   *          the forms directory or zip
+   * @param rootPath
+   *          the root of the forms
+   * @return null if there's no usable pack
+   */
+  public static FormPack openIfPresent(Path source, Path rootPath) {
+    Path packPath = getPackPath(source);
+    if (!Files.isRegularFile(packPath)) {
+      return null;
+    }
+    try {
+      return open(packPath, rootPath);
+    } catch (Exception e) {
+      logger.warn("Exception reading form pack: " + packPath + ", " + e.getLocalizedMessage() + ", ignoring");
+      return null;
+    }
+  }
+
+  /**
+   * compile every form under rootPath and write the pack to packPath
+   *
+   * written to a temporary file, then renamed, so a reader never sees part of a pack
+   *
+   * @param rootPath
+   *          a directory, or the root of a zip FileSystem
+   * @param packPath
+   * @return the number of forms written
+   * @throws IOException
+   */
+  public static int write(Path rootPath, Path packPath) throws IOException {
+    final long startMillis = System.currentTimeMillis();
+    List<Path> formPaths;
+    try (Stream<Path> stream = Files.walk(rootPath)) {
+      formPaths = stream.filter(FormPack::isForm).sorted().collect(Collectors.toList());
+    }
+
+    Map<String, Integer> stringMap = new LinkedHashMap<>();
+    ByteArrayOutputStream formsBytes = new ByteArrayOutputStream();
+    DataOutputStream forms = new DataOutputStream(formsBytes);
+    int formCount = 0;
+    for (Path formPath : formPaths) {
+      BasicFileAttributes attributes = Files.readAttributes(formPath, BasicFileAttributes.class);
+      CompiledTemplate template;
+      try {
+        template = CompiledTemplate.compile(Files.readString(formPath));
+      } catch (IOException e) {
+        // it will fail the same way when it's used, and say so then
+        logger.warn("Exception compiling form: " + formPath + ", " + e.getLocalizedMessage() + ", skipping");
+        continue;
+      }
+
+      forms.writeInt(intern(stringMap, toKey(rootPath, formPath)));
+      forms.writeLong(attributes.lastModifiedTime().toMillis());
+      forms.writeLong(attributes.size());
+      forms.writeInt(template.getSlotCount());
+      for (String[] strings : new String[][] { template.getLiterals(), template.getTokens(), template.getKeys() }) {
+        for (String s : strings) {
+          forms.writeInt(intern(stringMap, s));
+        }
+      }
+      ++formCount;
+    }
+    forms.flush();
+
+    List<byte[]> strings = new ArrayList<>(stringMap.size());
+    long dataLength = 0;
+    for (String s : stringMap.keySet()) {
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      strings.add(bytes);
+      dataLength += bytes.length;
+    }
+    long packLength = HEADER_BYTES + formsBytes.size() + (strings.size() + 1L) * Integer.BYTES + dataLength;
+    if (packLength > Integer.MAX_VALUE) {
+      throw new IOException("forms under: " + rootPath + " too large to pack, " + packLength + " bytes");
+    }
+
+    Path tmpPath = packPath.resolveSibling(packPath.getFileName() + ".tmp");
+    try (OutputStream outputStream = Files.newOutputStream(tmpPath);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream, 64 * 1024))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT);
+      out.writeInt(formCount);
+      out.writeInt(strings.size());
+      out.writeInt(formsBytes.size());
+      formsBytes.writeTo(out);
+      int offset = 0;
+      out.writeInt(offset);
+      for (byte[] bytes : strings) {
+        offset += bytes.length;
+        out.writeInt(offset);
+      }
+      for (byte[] bytes : strings) {
+        out.write(bytes);
+      }
+    }
+    Files.move(tmpPath, packPath, StandardCopyOption.REPLACE_EXISTING);
+
+    logger
+        .info("packed " + formCount + " forms, " + strings.size() + " strings, " + packLength + " bytes, to: "
+            + packPath + " in " + (System.currentTimeMillis() - startMillis) + " msec");
+    return formCount;
+  }
+
+  private static boolean isForm(Path path) {
+    String name = path.getFileName() == null ? "" : path.getFileName().toString().toLowerCase();
+    return (name.endsWith(".html") || name.endsWith(".htm")) && Files.isRegularFile(path);
+  }
+
+  private static int intern(Map<String, Integer> stringMap, String s) {
+    return stringMap.computeIfAbsent(s, k -> stringMap.size());
+  }
+
+  /**
+   * @return the path of formPath relative to rootPath, with / separators on every platform and FileSystem
+   */
+  private static String toKey(Path rootPath, Path formPath) {
+    Path relativePath = rootPath.relativize(formPath);
+    StringBuilder sb = new StringBuilder();
+    for (Path name : relativePath) {
+      if (sb.length() > 0) {
+        sb.append('/');
+      }
+      sb.append(name.toString());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * rebuild the compiled form from the pack, provided the form file is the one the pack was built from
+   *
+   * @param formPath
+   * @param lastModifiedMillis
+   *          of the form file now
+   * @param fileSize
+   *          of the form file now
+   * @return null if the form isn't in the pack, or has changed since
+   */
+  public CompiledTemplate get(Path formPath, long lastModifiedMillis, long fileSize) {
+    // a Path from another FileSystem never starts with the root
+    if (!formPath.startsWith(rootPath)) {
+      return null;
+    }
+    Integer position = formMap.get(toKey(rootPath, formPath));
+    if (position == null || buffer.getLong(position + 4) != lastModifiedMillis
+        || buffer.getLong(position + 12) != fileSize) {
+      return null;
+    }
+
+    int slotCount = buffer.getInt(position + 20);
+    int idPosition = position + 24;
+    String[] literals = new String[slotCount + 1];
+    String[] tokens = new String[slotCount];
+    String[] keys = new String[slotCount];
+    for (String[] strings : new String[][] { literals, tokens, keys }) {
+      for (int i = 0; i < strings.length; ++i) {
+        strings[i] = getString(buffer.getInt(idPosition));
+        idPosition += Integer.BYTES;
+      }
+    }
+    return CompiledTemplate.of(literals, tokens, keys);
+  }
+
+  private String getString(int id) {
+    int start = buffer.getInt(offsetsStart + id * Integer.BYTES);
+    int end = buffer.getInt(offsetsStart + (id + 1) * Integer.BYTES);
+    byte[] bytes = new byte[end - start];
+    // absolute, so concurrent readers don't disturb each other
+    buffer.get(dataStart + start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  public boolean contains(String relativePath) {
+    return formMap.containsKey(relativePath);
+  }
+
+  public int size() {
+    return formMap.size();
+  }
+
+  public long getByteCount() {
+    return buffer.capacity();
+  }
+
+  public Path getPackPath() {
+    return packPath;
+  }
+
+  @Override
+  public String toString() {
+    return "{pack: " + packPath + ", forms: " + size() + ", bytes: " + getByteCount() + "}";
+  }
+}
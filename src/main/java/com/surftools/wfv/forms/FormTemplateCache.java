@@ -0,0 +1,164 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.tools.ByteBoundedLruCache;
+
+/**
+ * cache of compiled form templates, keyed by path and validated against the file's modification time and size
+ *
+ * on a miss, the template comes from the FormPack, if there is one and it has the form as it is now; otherwise the form
+ * file is read and compiled
+ *
+ * @author bobt
+ *
+ */
+public class FormTemplateCache {
+  private static final Logger logger = LoggerFactory.getLogger(FormTemplateCache.class);
+
+  static class Entry {
+    final long lastModifiedMillis;
+    final long fileSize;
+    final CompiledTemplate template;
+
+    Entry(long lastModifiedMillis, long fileSize, CompiledTemplate template) {
+      this.lastModifiedMillis = lastModifiedMillis;
+      this.fileSize = fileSize;
+      this.template = template;
+    }
+
+    long weight() {
+      // two bytes per char, plus a rough allowance for the slot arrays
+      return 2L * template.getLiteralLength() + 64L * template.getSlotCount();
+    }
+  }
+
+  private final ByteBoundedLruCache<Path, Entry> cache;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder packLoads = new LongAdder();
+
+  // null without a pack
+  private final FormPack pack;
+
+  public FormTemplateCache(long maxBytes) {
+    this(maxBytes, null);
+  }
+
+  public FormTemplateCache(long maxBytes, FormPack pack) {
+    cache = new ByteBoundedLruCache<>(maxBytes, Entry::weight);
+    this.pack = pack;
+  }
+
+  /**
+   * return the compiled template for the form file, reading and compiling only if the file is new or has changed
+   *
+   * @param formPath
+   * @return
+   * @throws Exception
+   */
+  public CompiledTemplate get(Path formPath) throws Exception {
+    BasicFileAttributes attributes = Files.readAttributes(formPath, BasicFileAttributes.class);
+    long lastModifiedMillis = attributes.lastModifiedTime().toMillis();
+    long fileSize = attributes.size();
+
+    Entry entry = cache.get(formPath);
+    if (entry != null && entry.lastModifiedMillis == lastModifiedMillis && entry.fileSize == fileSize) {
+      hits.increment();
+      return entry.template;
+    }
+
+    misses.increment();
+    CompiledTemplate template = (pack == null) ? null : pack.get(formPath, lastModifiedMillis, fileSize);
+    if (template != null) {
+      packLoads.increment();
+    } else {
+      String formContent = Files.readString(formPath);
+      logger.debug("formFile: " + formPath + ", got " + formContent.length() + " bytes");
+      template = CompiledTemplate.compile(formContent);
+    }
+    entry = new Entry(lastModifiedMillis, fileSize, template);
+    cache.put(formPath, entry);
+    return entry.template;
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return how many misses were served from the pack, rather than by compiling the form file
+   */
+  public long getPackLoadCount() {
+    return packLoads.sum();
+  }
+
+  public FormPack getPack() {
+    return pack;
+  }
+
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  public long getTotalBytes() {
+    return cache.getTotalBytes();
+  }
+
+  public long getMaxBytes() {
+    return cache.getMaxBytes();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  @Override
+  public String toString() {
+    return "{entries: " + size() + ", bytes: " + getTotalBytes() + "/" + getMaxBytes() + ", hits: " + getHitCount()
+        + ", misses: " + getMissCount() + ", packLoads: " + getPackLoadCount() + ", evictions: " + getEvictionCount()
+        + "}";
+  }
+}
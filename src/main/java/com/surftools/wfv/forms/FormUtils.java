@@ -28,26 +28,47 @@ SOFTWARE.
 package com.surftools.wfv.forms;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpClient.Redirect;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.surftools.wfv.config.ConfigurationKey;
 import com.surftools.wfv.config.IConfigurationManager;
+import com.surftools.wfv.tools.DirectoryWatcher;
+import com.surftools.wfv.tools.FileManifest;
 import com.surftools.wfv.tools.Utils;
+import com.surftools.wfv.tools.ZipExtractor;
 
-import net.lingala.zip4j.ZipFile;
 
 public class FormUtils {
 
@@ -61,27 +82,79 @@ public class FormUtils {
     }
 
     FormVersion(String dirName) throws Exception {
-      Path versionPath = Path.of(dirName, "Standard_Forms_Version.dat");
-      File versionFile = versionPath.toFile();
-      if (versionFile.exists()) {
-        longVersion = Files.readString(versionPath).trim();
-        shortVersion = longVersion.substring(0, longVersion.lastIndexOf(".")).replace(".", "");
+      this(Path.of(dirName));
+    }
+
+    /**
+     * @param dirPath
+     *          a directory, or the root of a zip FileSystem
+     */
+    FormVersion(Path dirPath) throws Exception {
+      Path versionPath = dirPath.resolve(VERSION_FILE_NAME);
+      if (Files.exists(versionPath)) {
+        setVersion(Files.readString(versionPath));
       } else {
         throw new RuntimeException("could not find file: " + versionPath.toAbsolutePath());
       }
     }
+
+    /**
+     * read the version from a downloaded zip, without extracting it
+     */
+    FormVersion(ZipFile zipFile) throws Exception {
+      ZipEntry entry = zipFile.getEntry(VERSION_FILE_NAME);
+      if (entry == null) {
+        throw new RuntimeException("could not find " + VERSION_FILE_NAME + " in: " + zipFile.getName());
+      }
+      try (InputStream inputStream = zipFile.getInputStream(entry)) {
+        setVersion(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+      }
+    }
+
+    private void setVersion(String content) {
+      longVersion = content.trim();
+      shortVersion = longVersion.substring(0, longVersion.lastIndexOf(".")).replace(".", "");
+    }
   }
 
   private static final Logger logger = LoggerFactory.getLogger(FormUtils.class);
 
+  static final String STANDARD_FORMS_LINK_NAME = "StandardForms";
+  static final String STANDARD_FORMS_ZIP_NAME = "StandardForms.zip";
+  public static final String SOURCE_DIRECTORY = "directory";
+  public static final String SOURCE_ZIP = "zip";
+
+  // how long a replaced snapshot stays open, for requests that were using it
+  private static final long RETIRE_SECONDS = 60;
+  static final String VERSION_FILE_NAME = "Standard_Forms_Version.dat";
+
+  // anything smaller is an error page, not the forms; anything larger isn't the forms either
+  private static final long MIN_DOWNLOAD_BYTES = 1_000_000;
+  private static final long MAX_DOWNLOAD_BYTES = 512L * 1024 * 1024;
+
+  // a download that can't connect, doesn't answer, or stops sending for this long fails, rather than holding up updates
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+  private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(60);
+  private static final Duration STALL_TIMEOUT = Duration.ofSeconds(60);
+
   private final IConfigurationManager cm;
 
   private final String formsDirName;
   private final File formsDir;
   private final Path formsPath;
 
-  private FormVersion currentVersion;
-  private FormVersion newVersion;
+  // everything a request needs from the forms, replaced as a whole when they change
+  private volatile FormsRepository repository;
+  private final long cacheMaxBytes;
+  private final boolean useZip;
+  // the links in formsPath, and the forms directory they point to; not downloads, extractions or other versions
+  private DirectoryWatcher formsWatcher;
+  private DirectoryWatcher activeWatcher;
+  private volatile Path activePath;
+  private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+  // one update at a time; the FormUtils monitor itself is only held to swap and publish, so re-indexing isn't held up
+  private final Object updateLock = new Object();
 
   public FormUtils(IConfigurationManager cm) throws Exception {
     this.cm = cm;
@@ -89,6 +162,8 @@ public class FormUtils {
     formsDirName = cm.getAsString(ConfigurationKey.FORMS_PATH);
     formsDir = new File(formsDirName);
     formsPath = Path.of(formsDir.getCanonicalPath());
+    cacheMaxBytes = cm.getAsInt(ConfigurationKey.FORMS_CACHE_MAX_BYTES, 16 * 1024 * 1024);
+    useZip = SOURCE_ZIP.equalsIgnoreCase(cm.getAsString(ConfigurationKey.FORMS_SOURCE, SOURCE_DIRECTORY));
 
     boolean needsInitialDownload = false;
 
@@ -113,131 +188,504 @@ public class FormUtils {
       updateForms();
     }
 
-    currentVersion = new FormVersion(Path.of(formsDirName, "StandardForms").toString());
+    rebuildIndex();
+
+    FormsRepository snapshot = repository;
+    if (snapshot.getVersion() == null) {
+      throw new RuntimeException("could not find forms version in: " + snapshot.getSource());
+    }
     logger
-        .info("Forms path: " + formsDir + ", long version: " + currentVersion.longVersion + ", short version: "
-            + currentVersion.shortVersion);
+        .info("Forms path: " + formsDir + ", source: " + snapshot.getSource() + ", long version: "
+            + snapshot.getVersion() + ", short version: " + snapshot.getShortVersion());
+  }
+
+  /**
+   * re-read the forms version, index the forms and publish a new repository snapshot
+   *
+   * requests already under way finish with the snapshot they started with
+   */
+  public synchronized void rebuildIndex() {
+    FormsRepository previous = repository;
+    try {
+      // watch before indexing, so that nothing changed in between is missed
+      if (formsWatcher != null) {
+        watchActive();
+      }
+      // the version file is replaced by an update, even one made by another process
+      publish(load(previous));
+    } catch (Exception e) {
+      logger.error("Exception indexing forms directory: " + formsPath + ", " + e.getLocalizedMessage(), e);
+      if (previous == null) {
+        publish(new FormsRepository(null, FormIndex.empty(formsPath), new FormTemplateCache(cacheMaxBytes)));
+      }
+    }
   }
 
   /**
-   * attempt to download
+   * make snapshot the current forms, then let the listeners know
+   *
+   * @param snapshot
+   */
+  private synchronized void publish(FormsRepository snapshot) {
+    FormsRepository previous = repository;
+    repository = snapshot;
+    if (previous != null && previous.isZip()) {
+      CompletableFuture.delayedExecutor(RETIRE_SECONDS, TimeUnit.SECONDS).execute(previous::close);
+    }
+    if (formsWatcher != null) {
+      watchActive();
+    }
+
+    for (Runnable listener : changeListeners) {
+      try {
+        listener.run();
+      } catch (Exception e) {
+        logger.error("Exception notifying of forms change: " + e.getLocalizedMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * run listener after the forms have changed and been re-indexed, such as to discard anything rendered from them
+   *
+   * @param listener
+   */
+  public void addChangeListener(Runnable listener) {
+    changeListeners.add(listener);
+  }
+
+  /**
+   * rebuild the form name index whenever the installed forms change, or the StandardForms (or StandardForms.zip) link
+   * is pointed somewhere else
+   *
+   * only the forms in use are watched, so the files written by an update don't set off re-indexing until the link is
+   * swapped
+   *
+   * @throws Exception
+   */
+  public synchronized void startWatching() throws Exception {
+    if (formsWatcher == null) {
+      formsWatcher = new DirectoryWatcher("forms", formsPath, false, this::rebuildIndex, this::isActive);
+      formsWatcher.start();
+      watchActive();
+    }
+  }
+
+  public synchronized void stopWatching() {
+    if (formsWatcher != null) {
+      formsWatcher.stop();
+      formsWatcher = null;
+    }
+    if (activeWatcher != null) {
+      activeWatcher.stop();
+      activeWatcher = null;
+    }
+    activePath = null;
+  }
+
+  private boolean isActive(Path path) {
+    String name = path.getFileName().toString();
+    return name.equals(STANDARD_FORMS_LINK_NAME) || name.equals(STANDARD_FORMS_ZIP_NAME) || path.equals(activePath);
+  }
+
+  /**
+   * (re)start watching the forms directory the link points to, if it's changed; a zip is watched by formsWatcher
+   */
+  private synchronized void watchActive() {
+    try {
+      Path path = getActivePath();
+      if (path.equals(activePath)) {
+        return;
+      }
+      activePath = path;
+      if (activeWatcher != null) {
+        activeWatcher.stop();
+        activeWatcher = null;
+      }
+      if (Files.isDirectory(path)) {
+        activeWatcher = new DirectoryWatcher("forms-" + path.getFileName(), path, true, this::rebuildIndex);
+        activeWatcher.start();
+      }
+    } catch (IOException e) {
+      logger.warn("Exception watching forms: " + formsPath + ", " + e.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * @return where the forms are loaded from, as in load()
+   */
+  private Path getActivePath() throws IOException {
+    if (useZip) {
+      Path zipPath = formsPath.resolve(STANDARD_FORMS_ZIP_NAME);
+      if (Files.isRegularFile(zipPath)) {
+        return zipPath.toRealPath();
+      }
+    }
+    Path linkPath = formsPath.resolve(STANDARD_FORMS_LINK_NAME);
+    return Files.isDirectory(linkPath) ? linkPath.toRealPath() : formsPath;
+  }
+
+  /**
+   * attempt to download, and if there's a new version, ask before installing it
    */
   public void updateForms() {
-    // attempt to download
-    var ok = downloadForms();
-    if (!ok) {
-      // if we can't download, we can't do anything
-      return;
+    try {
+      logger.info(update(true));
+    } catch (Exception e) {
+      logger.error("Exception updating forms: " + e.getLocalizedMessage(), e);
+    }
+  }
+
+  /**
+   * load the forms, from the StandardForms.zip if so configured and it's there, otherwise from the directory that the
+   * StandardForms link points to
+   */
+  private FormsRepository load(FormsRepository previous) throws Exception {
+    if (useZip) {
+      Path zipPath = formsPath.resolve(STANDARD_FORMS_ZIP_NAME);
+      if (Files.isRegularFile(zipPath)) {
+        return FormsRepository.loadZip(zipPath.toRealPath(), previous, cacheMaxBytes);
+      }
+      logger.warn("Forms zip: " + zipPath + " not found, using the forms directory");
     }
+    return FormsRepository.load(formsPath, previous, cacheMaxBytes);
+  }
 
-    if (!currentVersion.shortVersion.equals(newVersion.shortVersion)) {
+  /**
+   * download the latest forms and, if they're a new version, install them
+   *
+   * the new forms are extracted (or opened in place), compiled into a FormPack, validated and indexed before anything
+   * changes. Then the StandardForms (or StandardForms.zip) link is swapped and the new snapshot published; requests
+   * already under way finish with the old forms. Only the swap and publish hold the FormUtils monitor, so re-indexing
+   * after hand edits carries on while the forms download
+   *
+   * @param interactive
+   *          ask on the console before installing
+   * @return what was done
+   * @throws Exception
+   *           if the forms can't be downloaded, or aren't valid
+   */
+  public String update(boolean interactive) throws Exception {
+    synchronized (updateLock) {
+      return doUpdate(interactive);
+    }
+  }
+
+  private String doUpdate(boolean interactive) throws Exception {
+    Path zipPath = downloadZip();
+    FormVersion newVersion;
+    try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+      newVersion = new FormVersion(zipFile);
+    }
+
+    // nothing is installed yet when called from the constructor
+    String currentShortVersion = (repository == null) ? null : repository.getShortVersion();
+    if (newVersion.shortVersion.equals(currentShortVersion)) {
+      // forms installed before there were packs get one now
+      Path installedPath = useZip ? zipPath : formsPath.resolve("StandardForms-" + newVersion.shortVersion);
+      if (Files.exists(installedPath) && !Files.exists(FormPack.getPackPath(installedPath))) {
+        writePack(installedPath);
+        rebuildIndex();
+      }
+      return "StandardForms already at " + newVersion.shortVersion;
+    }
+
+    Path newFormsPath = useZip ? zipPath : extractForms(zipPath, newVersion);
+    writePack(newFormsPath);
+    FormsRepository newRepository = useZip ? FormsRepository.loadZip(zipPath, null, cacheMaxBytes)
+        : FormsRepository.loadDirectory(newFormsPath, null, cacheMaxBytes);
+    if (newRepository.getIndex().size() == 0) {
+      newRepository.close();
+      throw new IOException("no forms found in: " + newFormsPath);
+    }
+
+    if (interactive && currentShortVersion != null) {
       boolean okToContinue = Utils
-          .promptForBoolean("Update currently installed forms (version " + currentVersion.shortVersion
+          .promptForBoolean("Update currently installed forms (version " + currentShortVersion
               + ") with new version (" + newVersion.shortVersion + ")? Default [no]: ");
       if (!okToContinue) {
-        logger.info("skipping forms update");
-        return;
-      }
-
-      try {
-        var linkPath = Path.of(formsPath.toString(), "StandardForms");
-        Files.delete(linkPath);
-        var targetPath = Path.of(formsPath.toString(), "StandardForms-" + newVersion.shortVersion);
-        Files.createSymbolicLink(linkPath, targetPath);
-      } catch (Exception e) {
-        logger.error("Exception unlinking/relinking: " + e.getLocalizedMessage());
+        newRepository.close();
+        return "skipping forms update";
       }
+    }
 
-      logger.info("StandardForms updated to " + newVersion.shortVersion);
-    } else {
-      logger.info("StandardForms already at " + newVersion.shortVersion);
+    synchronized (this) {
+      swapLink(useZip ? STANDARD_FORMS_ZIP_NAME : STANDARD_FORMS_LINK_NAME, newFormsPath.getFileName());
+      publish(newRepository);
     }
+    return "StandardForms updated from " + currentShortVersion + " to " + newVersion.shortVersion;
   }
 
   /**
-   * download the latest forms from the Winlink site
+   * point the link linkName at target in one step: a new link is made beside it and renamed over it, so there's
+   * never a moment without one
    *
-   * @return true if success, false otherwise
+   * @param linkName
+   *          such as StandardForms
+   * @param target
+   *          such as StandardForms-10142
+   * @throws IOException
    */
-  @SuppressWarnings("resource")
-  private boolean downloadForms() {
-    var downloadUrl = cm.getAsString(ConfigurationKey.FORMS_DOWNLOAD_URL);
+  private void swapLink(String linkName, Path target) throws IOException {
+    Path linkPath = formsPath.resolve(linkName);
+    Path newLinkPath = formsPath.resolve(linkName + ".new");
+    Files.deleteIfExists(newLinkPath);
+    Files.createSymbolicLink(newLinkPath, target);
+    Files.move(newLinkPath, linkPath, StandardCopyOption.ATOMIC_MOVE);
+    logger.info("linked " + linkPath + " to " + target);
+  }
+
+  /**
+   * compile every form in formsSource into its FormPack, unless it already has one
+   *
+   * the pack only saves time, so if it can't be written, the forms are compiled as they're used, as before
+   *
+   * @param formsSource
+   *          a versioned forms directory or zip, such as StandardForms-10142
+   */
+  private void writePack(Path formsSource) {
+    Path packPath = FormPack.getPackPath(formsSource);
+    if (Files.exists(packPath)) {
+      logger.info("already have: " + packPath.getFileName());
+      return;
+    }
     try {
-      HttpClient client = HttpClient.newBuilder().followRedirects(Redirect.NORMAL).build();
-      HttpRequest request = HttpRequest.newBuilder().uri(URI.create(downloadUrl)).build();
-      HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
-      byte[] bytes = response.body();
-
-      if (bytes != null && bytes.length > 1_000_000) {
-        logger.info("downloaded new forms: " + bytes.length + " bytes");
-
-        // write the bytes to a file
-        Path zipPath = Path.of(formsDir.getCanonicalPath(), "tmp-StandardForms.zip");
-        File zipFile = zipPath.toFile();
-        FileOutputStream fos = new FileOutputStream(zipFile);
-        fos.write(bytes);
-        fos.close();
-
-        // unzip
-        var tmpDirName = Path.of(formsDir.getCanonicalPath(), "tmp-StandardForms").toString();
-        var tmpDir = new File(tmpDirName);
-        boolean makeOk = tmpDir.mkdirs();
-        if (!makeOk) {
-          Utils.fatal(cm, ConfigurationKey.EMSG_CANT_MAKE_FORMS_DIR, formsDirName);
+      if (Files.isDirectory(formsSource)) {
+        FormPack.write(formsSource, packPath);
+      } else {
+        try (FileSystem zipFileSystem = FileSystems.newFileSystem(formsSource)) {
+          FormPack.write(zipFileSystem.getPath("/"), packPath);
         }
-        new ZipFile(zipFile).extractAll(tmpDirName);
+      }
+    } catch (Exception e) {
+      logger.warn("Exception writing form pack: " + packPath + ", " + e.getLocalizedMessage());
+    }
+  }
 
-        // extract new version
-        newVersion = new FormVersion(tmpDirName);
+  /**
+   * download the latest forms from the Winlink site
+   *
+   * @return the downloaded zip, such as StandardForms-1.0.142.0.zip
+   * @throws Exception
+   *           if the forms can't be downloaded
+   */
+  private Path downloadZip() throws Exception {
+    Path zipPath = formsPath.resolve("tmp-StandardForms.zip");
+    String sha256 = download(zipPath);
 
-        // rename zip
-        String renameZipFileName = Path
-            .of(formsPath.toString(), "StandardForms-" + newVersion.longVersion + ".zip")
-              .toString();
-        File renameZipFile = new File(renameZipFileName);
-        zipFile.renameTo(renameZipFile);
-        logger.info("wrote zip file to: " + renameZipFile.getName());
+    FormVersion version;
+    try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+      version = new FormVersion(zipFile);
+    }
 
-        // rename tmpDir
-        var renameTmpDir = new File(formsDir.getCanonicalPath(), "StandardForms-" + newVersion.shortVersion);
-        tmpDir.renameTo(renameTmpDir);
-        logger.info("wrote zipped forms file to: " + renameTmpDir.getName());
+    // rename zip, and record its checksum beside it
+    Path renameZipPath = formsPath.resolve("StandardForms-" + version.longVersion + ".zip");
+    Files.move(zipPath, renameZipPath, StandardCopyOption.REPLACE_EXISTING);
+    Files.writeString(formsPath.resolve(renameZipPath.getFileName() + ".sha256"),
+        sha256 + "  " + renameZipPath.getFileName() + "\n");
+    logger.info("wrote zip file to: " + renameZipPath.getFileName() + ", sha256: " + sha256);
+    return renameZipPath;
+  }
 
+  /**
+   * extract the forms to their own versioned directory
+   *
+   * @param zipPath
+   * @param version
+   * @return the directory holding the extracted forms, such as StandardForms-10142
+   * @throws Exception
+   *           if the forms can't be extracted
+   */
+  private Path extractForms(Path zipPath, FormVersion version) throws Exception {
+    Path tmpPath = formsPath.resolve("tmp-StandardForms");
+    Path versionPath = formsPath.resolve("StandardForms-" + version.shortVersion);
+    FileManifest manifest;
+    try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+      manifest = FileManifest.of(zipFile);
+
+      // unzip, unless that version is already there, starting clean in case an earlier attempt was interrupted
+      if (Files.isDirectory(versionPath)) {
+        logger.info("already have: " + versionPath.getFileName());
+      } else {
+        deleteDirectory(tmpPath);
+
+        // only what's changed since the installed version is extracted; the rest is linked from there
+        Path previousPath = getInstalledPath();
+        FileManifest previousManifest = (previousPath == null) ? null : getManifest(previousPath);
+        if (previousManifest != null) {
+          List<String> changes = previousManifest.diff(manifest);
+          logger.info(changes.size() + " files new, changed or removed since " + previousPath.getFileName());
+          logger.debug("changes: " + changes);
+        }
+        new ZipExtractor(Runtime.getRuntime().availableProcessors())
+            .extract(zipFile, tmpPath, previousPath, previousManifest);
       }
-      return true;
-    } catch (Exception e) {
-      logger.error("Exception downloading froms from : " + downloadUrl + ", " + e.getMessage(), e);
-      return false;
     }
+
+    // rename tmpDir
+    if (Files.isDirectory(tmpPath)) {
+      Files.move(tmpPath, versionPath);
+      logger.info("wrote zipped forms file to: " + versionPath.getFileName());
+    }
+    if (!Files.exists(getManifestPath(versionPath))) {
+      manifest.write(getManifestPath(versionPath));
+    }
+    return versionPath;
+  }
+
+  /**
+   * @return the directory the StandardForms link points to, or null if there isn't one
+   * @throws IOException
+   */
+  private Path getInstalledPath() throws IOException {
+    Path linkPath = formsPath.resolve(STANDARD_FORMS_LINK_NAME);
+    return Files.isDirectory(linkPath) ? linkPath.toRealPath() : null;
+  }
+
+  /**
+   * the manifest of an installed version is kept beside it, such as StandardForms-10142.manifest
+   */
+  private Path getManifestPath(Path versionPath) {
+    return versionPath.resolveSibling(versionPath.getFileName() + ".manifest");
   }
 
   /**
-   * return canonical pathname for form; given form name
+   * read the manifest of an installed version; a version installed before manifests were kept is scanned once
    *
-   * @param displayFormName
+   * @param versionPath
    * @return
-   * @throws Exception
-   *           if not found or more than one matching name found
+   * @throws IOException
    */
-  public String findFormFile(String displayFormName) throws Exception {
-    List<Path> matchingPaths = new ArrayList<>();
-    Files.walk(Paths.get(formsDir.getCanonicalFile().toURI())).filter(Files::isRegularFile).forEach((f) -> {
-      String fileName = f.getFileName().toString();
-      if (fileName.equals(displayFormName)) {
-        matchingPaths.add(f);
-        logger.debug("found matching filename: " + fileName);
+  private FileManifest getManifest(Path versionPath) throws IOException {
+    Path manifestPath = getManifestPath(versionPath);
+    if (Files.exists(manifestPath)) {
+      try {
+        return FileManifest.read(manifestPath);
+      } catch (IOException e) {
+        logger.warn("Exception reading manifest: " + manifestPath + ", " + e.getLocalizedMessage() + ", rescanning");
       }
+    }
+    FileManifest manifest = FileManifest.scan(versionPath);
+    manifest.write(manifestPath);
+    return manifest;
+  }
+
+  /**
+   * stream the forms zip to zipPath, checking its size and computing its checksum on the way, so it's never held in
+   * memory
+   *
+   * the request times out if the server can't be reached or doesn't answer; the body has no such timeout, so it's
+   * closed if nothing arrives for STALL_TIMEOUT
+   *
+   * @param zipPath
+   * @return the SHA-256 of the download, in hex
+   * @throws Exception
+   *           if the download fails, is truncated, or is too small or too large to be the forms
+   */
+  private String download(Path zipPath) throws Exception {
+    var downloadUrl = cm.getAsString(ConfigurationKey.FORMS_DOWNLOAD_URL);
+    HttpClient client = HttpClient.newBuilder().followRedirects(Redirect.NORMAL).connectTimeout(CONNECT_TIMEOUT)
+        .build();
+    HttpRequest request = HttpRequest.newBuilder().uri(URI.create(downloadUrl)).timeout(RESPONSE_TIMEOUT).build();
+    HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    long expectedBytes = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    long bytes = 0;
+    InputStream body = response.body();
+    AtomicLong lastReadNanos = new AtomicLong(System.nanoTime());
+    AtomicBoolean stalled = new AtomicBoolean();
+    ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "forms-download-watchdog");
+      thread.setDaemon(true);
+      return thread;
     });
+    watchdog.scheduleWithFixedDelay(() -> {
+      if (System.nanoTime() - lastReadNanos.get() > STALL_TIMEOUT.toNanos()) {
+        stalled.set(true);
+        try {
+          body.close();
+        } catch (IOException e) {
+          ;
+        }
+      }
+    }, 1, 1, TimeUnit.SECONDS);
 
-    if (matchingPaths.size() > 1) {
-      Utils.fatal(cm, ConfigurationKey.EMSG_MULTIPLE_FORM_FILES_FOUND, displayFormName);
+    try (InputStream inputStream = new DigestInputStream(body, digest);
+        OutputStream outputStream = Files.newOutputStream(zipPath)) {
+      if (response.statusCode() != 200) {
+        throw new IOException("unexpected response from: " + downloadUrl + ", status: " + response.statusCode());
+      }
+      byte[] buffer = new byte[64 * 1024];
+      int n;
+      while ((n = inputStream.read(buffer)) > 0) {
+        lastReadNanos.set(System.nanoTime());
+        bytes += n;
+        if (bytes > MAX_DOWNLOAD_BYTES) {
+          throw new IOException("download from: " + downloadUrl + " larger than " + MAX_DOWNLOAD_BYTES + " bytes");
+        }
+        outputStream.write(buffer, 0, n);
+      }
+    } catch (IOException e) {
+      if (stalled.get()) {
+        throw new IOException("download from: " + downloadUrl + " stalled, nothing received for "
+            + STALL_TIMEOUT.toSeconds() + " seconds, after " + bytes + " bytes");
+      }
+      throw e;
+    } finally {
+      watchdog.shutdownNow();
+    }
+    if (stalled.get()) {
+      throw new IOException("download from: " + downloadUrl + " stalled after " + bytes + " bytes");
+    }
+
+    if (expectedBytes >= 0 && bytes != expectedBytes) {
+      throw new IOException("download from: " + downloadUrl + " truncated, got " + bytes + " of " + expectedBytes
+          + " bytes");
+    }
+    if (bytes < MIN_DOWNLOAD_BYTES) {
+      throw new IOException("download from: " + downloadUrl + " too small to be the forms, " + bytes + " bytes");
     }
 
-    if (matchingPaths.size() == 0) {
-      Utils.fatal(cm, ConfigurationKey.EMSG_NO_FORM_FILE_FOUND, displayFormName);
+    StringBuilder sb = new StringBuilder();
+    for (byte b : digest.digest()) {
+      sb.append(String.format("%02x", b));
+    }
+    logger.info("downloaded new forms: " + bytes + " bytes");
+    return sb.toString();
+  }
+
+  private static void deleteDirectory(Path path) throws IOException {
+    if (!Files.exists(path)) {
+      return;
+    }
+    try (Stream<Path> stream = Files.walk(path)) {
+      for (Path p : stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(p);
+      }
     }
+  }
+
+  /**
+   * @return the current snapshot of the forms; take it once and use it for the whole request
+   */
+  public FormsRepository getRepository() {
+    return repository;
+  }
+
+  public FormTemplateCache getTemplateCache() {
+    return repository.getTemplateCache();
+  }
+
+  /**
+   * @return the long version of the installed forms, such as 1.0.142.0
+   */
+  public String getFormsVersion() {
+    return repository.getVersion();
+  }
 
-    return matchingPaths.get(0).toFile().getCanonicalPath();
+  public FormIndex getFormIndex() {
+    return repository.getIndex();
   }
 
 }
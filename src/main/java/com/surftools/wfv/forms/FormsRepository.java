@@ -0,0 +1,228 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.forms.FormUtils.FormVersion;
+
+/**
+ * immutable snapshot of the installed forms: their version, the form name index and the compiled form cache
+ *
+ * a request takes one snapshot and uses it throughout, so it never sees the version of one set of forms with the
+ * index of another. When the forms change, a new snapshot is built and published in a single step; see
+ * FormUtils.getRepository()
+ *
+ * the forms are either an extracted directory, or read in place from the downloaded zip through a zip FileSystem.
+ * Either way, they're found and read through a Path, so nothing else needs to know which. A FormPack beside them, if
+ * there is one, saves compiling each form the first time it's used
+ *
+ * @author bobt
+ *
+ */
+public final class FormsRepository {
+  private static final Logger logger = LoggerFactory.getLogger(FormsRepository.class);
+
+  private final FormVersion version;
+  private final FormIndex index;
+  private final FormTemplateCache templateCache;
+  private final long createdMillis;
+  private final String source;
+
+  // only for forms read from a zip
+  private final FileSystem fileSystem;
+
+  FormsRepository(FormVersion version, FormIndex index, FormTemplateCache templateCache) {
+    this(version, index, templateCache, null, String.valueOf(index.getRootPath()));
+  }
+
+  private FormsRepository(FormVersion version, FormIndex index, FormTemplateCache templateCache,
+      FileSystem fileSystem, String source) {
+    this.version = version;
+    this.index = index;
+    this.templateCache = templateCache;
+    this.fileSystem = fileSystem;
+    this.source = source;
+    this.createdMillis = System.currentTimeMillis();
+  }
+
+  /**
+   * read the version and index the forms that the StandardForms link under formsPath points to
+   *
+   * the link is resolved once, so the version and the index always come from the same directory, even if the link is
+   * swapped while we're reading. Without a StandardForms link or directory, everything under formsPath is indexed
+   *
+   * @param formsPath
+   * @param previous
+   *          the snapshot being replaced, if any; its version is kept if the version file can't be read
+   * @param cacheMaxBytes
+   * @return
+   * @throws Exception
+   *           if the forms can't be indexed
+   */
+  static FormsRepository load(Path formsPath, FormsRepository previous, long cacheMaxBytes) throws Exception {
+    Path linkPath = formsPath.resolve(FormUtils.STANDARD_FORMS_LINK_NAME);
+    Path rootPath = Files.isDirectory(linkPath) ? linkPath.toRealPath() : formsPath;
+    return loadDirectory(rootPath, previous, cacheMaxBytes);
+  }
+
+  /**
+   * read the version and index the forms in rootPath
+   *
+   * @param rootPath
+   * @param previous
+   *          the snapshot being replaced, if any; its version is kept if the version file can't be read
+   * @param cacheMaxBytes
+   * @return
+   * @throws Exception
+   *           if the forms can't be indexed
+   */
+  static FormsRepository loadDirectory(Path rootPath, FormsRepository previous, long cacheMaxBytes) throws Exception {
+    FormVersion version = readVersion(rootPath, previous);
+    FormIndex index = FormIndex.build(rootPath);
+    FormPack pack = FormPack.openIfPresent(rootPath, rootPath);
+    return new FormsRepository(version, index, new FormTemplateCache(cacheMaxBytes, pack));
+  }
+
+  /**
+   * open the forms zip in place, and index its entries; nothing is extracted
+   *
+   * @param zipPath
+   * @param previous
+   *          the snapshot being replaced, if any; its version is kept if the version file can't be read
+   * @param cacheMaxBytes
+   * @return
+   * @throws Exception
+   *           if the zip can't be opened or indexed
+   */
+  static FormsRepository loadZip(Path zipPath, FormsRepository previous, long cacheMaxBytes) throws Exception {
+    FileSystem zipFileSystem = FileSystems.newFileSystem(zipPath);
+    try {
+      Path rootPath = zipFileSystem.getPath("/");
+      FormVersion version = readVersion(rootPath, previous);
+      FormIndex index = FormIndex.build(rootPath);
+      FormPack pack = FormPack.openIfPresent(zipPath, rootPath);
+      return new FormsRepository(version, index, new FormTemplateCache(cacheMaxBytes, pack), zipFileSystem,
+          zipPath.toString());
+    } catch (Exception e) {
+      zipFileSystem.close();
+      throw e;
+    }
+  }
+
+  private static FormVersion readVersion(Path rootPath, FormsRepository previous) {
+    try {
+      return new FormVersion(rootPath);
+    } catch (Exception e) {
+      logger.warn("Exception reading forms version: " + e.getLocalizedMessage());
+      return (previous == null) ? null : previous.version;
+    }
+  }
+
+  /**
+   * release the zip, if the forms are read from one; only once no request can still be using this snapshot
+   */
+  void close() {
+    if (fileSystem != null) {
+      try {
+        fileSystem.close();
+        logger.debug("closed: " + source);
+      } catch (Exception e) {
+        logger.warn("Exception closing: " + source + ", " + e.getLocalizedMessage());
+      }
+    }
+  }
+
+  /**
+   * @param displayFormName
+   * @return the canonical path of the form, or null if it's not found or not unique
+   */
+  public Path find(String displayFormName) {
+    return (displayFormName == null) ? null : index.find(displayFormName);
+  }
+
+  /**
+   * return the compiled form, from the cache if the form file hasn't changed
+   *
+   * @param formPath
+   * @return
+   * @throws Exception
+   */
+  public CompiledTemplate getTemplate(Path formPath) throws Exception {
+    return templateCache.get(formPath);
+  }
+
+  /**
+   * @return the long version of the forms, such as 1.0.142.0, or null if not known
+   */
+  public String getVersion() {
+    return (version == null) ? null : version.longVersion;
+  }
+
+  /**
+   * @return the short version of the forms, such as 10142, or null if not known
+   */
+  public String getShortVersion() {
+    return (version == null) ? null : version.shortVersion;
+  }
+
+  public FormIndex getIndex() {
+    return index;
+  }
+
+  public FormTemplateCache getTemplateCache() {
+    return templateCache;
+  }
+
+  public long getCreatedMillis() {
+    return createdMillis;
+  }
+
+  /**
+   * @return the directory or zip file the forms are read from
+   */
+  public String getSource() {
+    return source;
+  }
+
+  public boolean isZip() {
+    return fileSystem != null;
+  }
+
+  @Override
+  public String toString() {
+    return "{version: " + getVersion() + ", source: " + source + ", index: " + index + ", cache: " + templateCache
+        + "}";
+  }
+}
@@ -0,0 +1,171 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * keeps a running server's forms up to date: checks for new forms on a schedule, or when asked, without prompting
+ *
+ * only one update runs at a time, on a background thread; requests carry on with the current forms until the new
+ * ones are installed
+ *
+ * @author bobt
+ *
+ */
+public class FormsUpdater {
+  private static final Logger logger = LoggerFactory.getLogger(FormsUpdater.class);
+
+  private final FormUtils formUtils;
+  private final ScheduledExecutorService executor;
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicLong checkCount = new AtomicLong();
+  private final AtomicLong failureCount = new AtomicLong();
+
+  private volatile long lastStartMillis;
+  private volatile long lastEndMillis;
+  private volatile String lastResult;
+  private volatile String lastError;
+  private volatile long intervalMinutes;
+
+  public FormsUpdater(FormUtils formUtils) {
+    this.formUtils = formUtils;
+    executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "forms-updater");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * check for new forms after initialDelayMinutes, then every intervalMinutes
+   *
+   * @param initialDelayMinutes
+   * @param intervalMinutes
+   *          zero or less to not check on a schedule
+   */
+  public void schedule(long initialDelayMinutes, long intervalMinutes) {
+    if (intervalMinutes <= 0) {
+      logger.info("scheduled forms updates disabled");
+      return;
+    }
+    this.intervalMinutes = intervalMinutes;
+    executor.scheduleWithFixedDelay(this::run, initialDelayMinutes, intervalMinutes, TimeUnit.MINUTES);
+    logger.info("checking for new forms every " + intervalMinutes + " minutes");
+  }
+
+  /**
+   * start an update now, unless one is already running
+   *
+   * @return true if started
+   */
+  public boolean trigger() {
+    if (running.get()) {
+      return false;
+    }
+    executor.execute(this::run);
+    return true;
+  }
+
+  /**
+   * run an update on the calling thread, unless one is already running
+   */
+  void run() {
+    if (!running.compareAndSet(false, true)) {
+      return;
+    }
+    lastStartMillis = System.currentTimeMillis();
+    try {
+      String result = formUtils.update(false);
+      logger.info(result);
+      lastResult = result;
+      lastError = null;
+      checkCount.incrementAndGet();
+    } catch (Exception e) {
+      logger.warn("Exception updating forms: " + e.getLocalizedMessage());
+      lastError = e.getLocalizedMessage();
+      failureCount.incrementAndGet();
+    } finally {
+      lastEndMillis = System.currentTimeMillis();
+      running.set(false);
+    }
+  }
+
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  public long getCheckCount() {
+    return checkCount.get();
+  }
+
+  public long getFailureCount() {
+    return failureCount.get();
+  }
+
+  public String getLastResult() {
+    return lastResult;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  /**
+   * @return one name=value per line, for the admin endpoint
+   */
+  public String getStatusText() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("state=").append(running.get() ? "running" : "idle").append("\n");
+    sb.append("version=").append(formUtils.getFormsVersion()).append("\n");
+    sb.append("intervalMinutes=").append(intervalMinutes).append("\n");
+    sb.append("lastStart=").append(toInstant(lastStartMillis)).append("\n");
+    sb.append("lastEnd=").append(toInstant(lastEndMillis)).append("\n");
+    sb.append("lastResult=").append(lastResult).append("\n");
+    sb.append("lastError=").append(lastError).append("\n");
+    sb.append("checks=").append(checkCount.get()).append("\n");
+    sb.append("failures=").append(failureCount.get()).append("\n");
+    return sb.toString();
+  }
+
+  private static String toInstant(long millis) {
+    return (millis == 0) ? null : Instant.ofEpochMilli(millis).toString();
+  }
+}
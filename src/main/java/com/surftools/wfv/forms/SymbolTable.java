@@ -0,0 +1,134 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.forms;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * variable names, interned to small integer ids, shared by the compiled forms and the view parser
+ *
+ * a compiled form binds each {var x} slot to the id of x, and the parser puts the value of x at that index of a flat
+ * array, so rendering is an array access: no lower casing and no hashing
+ *
+ * only compiled forms add names, so the table is bounded by the forms. The parser only looks names up; a name from a
+ * view file that no form uses has no id
+ *
+ * @author bobt
+ *
+ */
+public final class SymbolTable {
+  private static final Logger logger = LoggerFactory.getLogger(SymbolTable.class);
+
+  private static final SymbolTable defaultTable = new SymbolTable();
+
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+  // names[id]; replaced, never modified, when it grows, so readers don't need a lock
+  private volatile String[] names = new String[256];
+  private volatile int size;
+
+  SymbolTable() {
+  }
+
+  /**
+   * @return the table shared by everything that compiles forms or parses views
+   */
+  public static SymbolTable getDefault() {
+    return defaultTable;
+  }
+
+  /**
+   * @param name
+   *          a variable name, in any case
+   * @return the id of the lower case name, adding it if need be
+   */
+  public int intern(String name) {
+    String lowerName = name.toLowerCase();
+    Integer id = ids.get(lowerName);
+    return (id != null) ? id : add(lowerName);
+  }
+
+  private synchronized int add(String lowerName) {
+    Integer id = ids.get(lowerName);
+    if (id != null) {
+      return id;
+    }
+
+    int newId = size;
+    if (newId == names.length) {
+      names = Arrays.copyOf(names, 2 * names.length);
+      logger.debug("grew to " + names.length + " names");
+    }
+    names[newId] = lowerName;
+    // the name is in place before anyone can find its id
+    size = newId + 1;
+    ids.put(lowerName, newId);
+    return newId;
+  }
+
+  /**
+   * @param name
+   *          a variable name, in any case
+   * @return the id of the name, or -1 if no form uses it
+   */
+  public int find(String name) {
+    Integer id = ids.get(name);
+    if (id == null) {
+      // most names are already lower case, and toLowerCase() returns those as is, without copying
+      String lowerName = name.toLowerCase();
+      if (lowerName != name) {
+        id = ids.get(lowerName);
+      }
+    }
+    return (id == null) ? -1 : id;
+  }
+
+  /**
+   * @param id
+   * @return the lower case name
+   */
+  public String getName(int id) {
+    return names[id];
+  }
+
+  /**
+   * @return the number of names; every id is less than this
+   */
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "{names: " + size + "}";
+  }
+}
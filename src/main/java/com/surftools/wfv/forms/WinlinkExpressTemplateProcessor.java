@@ -27,19 +27,10 @@ SOFTWARE.
 
 package com.surftools.wfv.forms;
 
+import java.io.IOException;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class WinlinkExpressTemplateProcessor {
-  private static final Logger logger = LoggerFactory.getLogger(WinlinkExpressTemplateProcessor.class);
-
-  private final static String regex = "\\{[vV][aA][rR] ([^}]++)\\}";
-  private final static Pattern pattern = Pattern.compile(regex);
-
   private boolean doReplaceNotFoundWithEmptyString;
 
   public WinlinkExpressTemplateProcessor() {
@@ -47,32 +38,55 @@ public class WinlinkExpressTemplateProcessor {
   }
 
   public String process(String source, Map<String, String> variableMap) {
-    // https://stackoverflow.com/questions/17462146
-    Matcher matcher = pattern.matcher(source);
-    String result = source;
-
-    while (matcher.find()) {
-      String token = matcher.group(); // Ex: {var fizz}
-      String tokenKey = matcher.group(1).toLowerCase(); // Ex: fizz
-
-      String replacementValue = variableMap.get(tokenKey);
-      if ((replacementValue == null) && (doReplaceNotFoundWithEmptyString)) {
-        replacementValue = "";
-      }
-      if (replacementValue == null) {
-        logger.warn("Source string contained an unsupported token: " + tokenKey);
-      } else {
-        try {
-          replacementValue = replacementValue.replace("\"", "&quot;");
-          logger.debug("replacing: " + tokenKey + " with " + replacementValue);
-          result = result.replace(token, replacementValue);
-        } catch (Exception e) {
-          logger.error("Exception for token: " + token + ", value: " + replacementValue + ", " + e.getMessage());
-        }
-      }
-    }
-
-    return result;
+    return process(CompiledTemplate.compile(source), variableMap);
+  }
+
+  /**
+   * render a previously compiled template; preferred when the same form is rendered more than once
+   *
+   * @param template
+   * @param variableMap
+   * @return
+   */
+  public String process(CompiledTemplate template, Map<String, String> variableMap) {
+    return template.render(variableMap, doReplaceNotFoundWithEmptyString);
+  }
+
+  /**
+   * render a previously compiled template straight to out, such as an HTTP response
+   *
+   * @param template
+   * @param variableMap
+   * @param out
+   * @throws IOException
+   */
+  public void process(CompiledTemplate template, Map<String, String> variableMap, Appendable out)
+      throws IOException {
+    template.render(variableMap, doReplaceNotFoundWithEmptyString, out);
+  }
+
+  /**
+   * render a previously compiled template from values indexed by SymbolTable id, such as from
+   * WinlinkExpressViewerStreamParser.getValues()
+   *
+   * @param template
+   * @param values
+   * @return
+   */
+  public String process(CompiledTemplate template, String[] values) {
+    return template.render(values, doReplaceNotFoundWithEmptyString);
+  }
+
+  /**
+   * render a previously compiled template from values indexed by SymbolTable id, straight to out
+   *
+   * @param template
+   * @param values
+   * @param out
+   * @throws IOException
+   */
+  public void process(CompiledTemplate template, String[] values, Appendable out) throws IOException {
+    template.render(values, doReplaceNotFoundWithEmptyString, out);
   }
 
   public boolean isDoReplaceNotFoundWithEmptyString() {
@@ -28,11 +28,14 @@ SOFTWARE.
 package com.surftools.wfv.forms;
 
 import java.io.ByteArrayInputStream;
+import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,20 +43,63 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
 
 public class WinlinkExpressViewerParser {
   private static final Logger logger = LoggerFactory.getLogger(WinlinkExpressTemplateProcessor.class);
 
+  // configured once; DocumentBuilders aren't thread-safe, so each thread reuses its own
+  private static final DocumentBuilderFactory factory = makeFactory();
+  private static final ThreadLocal<DocumentBuilder> threadBuilder = ThreadLocal
+      .withInitial(WinlinkExpressViewerParser::makeBuilder);
+
+  // never go to the network or file system, even if asked
+  private static final EntityResolver noEntityResolver = (publicId, systemId) -> new InputSource(
+      new StringReader(""));
+
   private Map<String, String> keyValueMap;
 
   public WinlinkExpressViewerParser() {
     keyValueMap = new HashMap<>();
   }
 
+  /**
+   * view files come from the outside world: no DOCTYPE, no external entities, no XInclude
+   *
+   * @return
+   */
+  private static DocumentBuilderFactory makeFactory() {
+    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    try {
+      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+      factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+      factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+      factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+    } catch (ParserConfigurationException e) {
+      logger.warn("Exception configuring XML parser: " + e.getLocalizedMessage());
+    }
+    factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+    factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    factory.setXIncludeAware(false);
+    return factory;
+  }
+
+  private static DocumentBuilder makeBuilder() {
+    try {
+      return factory.newDocumentBuilder();
+    } catch (ParserConfigurationException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   public String parse(String xmlString, boolean doVerbose) {
     try {
-      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder builder = factory.newDocumentBuilder();
+      DocumentBuilder builder = threadBuilder.get();
+      // reset() doesn't preserve the entity resolver
+      builder.reset();
+      builder.setEntityResolver(noEntityResolver);
       ByteArrayInputStream input = new ByteArrayInputStream(xmlString.getBytes("UTF-8"));
       Document document = builder.parse(input);
       document.getDocumentElement().normalize();
@@ -0,0 +1,411 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * StAX equivalent of WinlinkExpressViewerParser: reads a view file in one forward pass, without building a DOM
+ *
+ * unlike the DOM parser, the root element must be RMS_Express_Form
+ *
+ * produces the same variable map: names are lower case; empty form_parameters map to null, empty variables are
+ * skipped; the value is that of the first child node, just as the DOM parser uses getFirstChild().getNodeValue()
+ *
+ * values are kept in a flat array indexed by SymbolTable id, which is what a CompiledTemplate renders from. Names that
+ * no form uses are kept aside in a map; getVariableMap() puts both together, for callers that want a map
+ *
+ * @author bobt
+ *
+ */
+public class WinlinkExpressViewerStreamParser {
+  private static final Logger logger = LoggerFactory.getLogger(WinlinkExpressViewerStreamParser.class);
+
+  public static final String NOT_A_VIEW_FILE = "uploaded content doesn't appear to be valid Winlink View file";
+
+  private static final String ROOT_ELEMENT = "rms_express_form";
+  private static final String FORM_PARAMETERS = "form_parameters";
+  private static final String VARIABLES = "variables";
+
+  // without this, the JDK parser reports CDATA sections as ordinary characters
+  private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+  // factories are thread-safe once configured; no external entities or DTDs, since view files come from outside
+  private static final XMLInputFactory factory = makeFactory();
+
+  // where a value came from; variables are applied after form_parameters, same as the DOM parser
+  private static final byte NONE = 0;
+  private static final byte FORM_PARAMETER = 1;
+  private static final byte VARIABLE = 2;
+
+  private final SymbolTable symbolTable;
+
+  // values[id] and where it came from, for names a form uses
+  private String[] values;
+  private byte[] sources;
+
+  // lower case name to value, for names no form used when parsed; null until needed
+  private Map<String, String> extraFormParameters;
+  private Map<String, String> extraVariables;
+
+  private Map<String, String> variableMap;
+
+  public WinlinkExpressViewerStreamParser() {
+    this(SymbolTable.getDefault());
+  }
+
+  WinlinkExpressViewerStreamParser(SymbolTable symbolTable) {
+    this.symbolTable = symbolTable;
+  }
+
+  private static XMLInputFactory makeFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+    factory.setXMLResolver((publicId, systemId, baseUri, namespace) -> new ByteArrayInputStream(new byte[0]));
+    if (factory.isPropertySupported(REPORT_CDATA)) {
+      factory.setProperty(REPORT_CDATA, true);
+    }
+    return factory;
+  }
+
+  public String parse(String xmlString, boolean doVerbose) {
+    return parse(new StringReader(xmlString), doVerbose);
+  }
+
+  public String parse(Reader reader, boolean doVerbose) {
+    try {
+      return parse(factory.createXMLStreamReader(reader), doVerbose);
+    } catch (Exception e) {
+      return e.getMessage();
+    }
+  }
+
+  /**
+   * parse from a stream; the character encoding is taken from the byte order mark or XML declaration
+   *
+   * @param inputStream
+   * @param doVerbose
+   * @return null if ok, error message otherwise
+   */
+  public String parse(InputStream inputStream, boolean doVerbose) {
+    try {
+      return parse(factory.createXMLStreamReader(inputStream), doVerbose);
+    } catch (Exception e) {
+      return e.getMessage();
+    }
+  }
+
+  private String parse(XMLStreamReader reader, boolean doVerbose) {
+    String result = parseSections(reader, doVerbose);
+    if (result != null) {
+      // same as the DOM parser, nothing is kept from a view that isn't valid
+      clear();
+    }
+    return result;
+  }
+
+  private String parseSections(XMLStreamReader reader, boolean doVerbose) {
+    if (values == null) {
+      values = new String[symbolTable.size()];
+      sources = new byte[values.length];
+    }
+    variableMap = null;
+
+    try {
+      boolean hasFormParameters = false;
+      boolean hasVariables = false;
+      boolean isRoot = true;
+
+      while (reader.hasNext()) {
+        if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+          continue;
+        }
+
+        String name = getName(reader);
+        if (isRoot) {
+          // give up early, rather than reading all of something that isn't a view file
+          if (!name.equalsIgnoreCase(ROOT_ELEMENT)) {
+            return NOT_A_VIEW_FILE;
+          }
+          isRoot = false;
+        } else if (!hasFormParameters && name.equals(FORM_PARAMETERS)) {
+          readSection(reader, FORM_PARAMETERS, FORM_PARAMETER, doVerbose);
+          hasFormParameters = true;
+        } else if (!hasVariables && name.equals(VARIABLES)) {
+          readSection(reader, VARIABLES, VARIABLE, doVerbose);
+          hasVariables = true;
+        }
+      }
+
+      if (!hasFormParameters) {
+        return "no " + FORM_PARAMETERS + " element found";
+      }
+
+      if (!hasVariables) {
+        return "no " + VARIABLES + " element found";
+      }
+      logger.debug("after parsing, " + values.length + " slots, extras: " + size(extraFormParameters) + " + "
+          + size(extraVariables));
+    } catch (Exception e) {
+      return e.getMessage();
+    } finally {
+      try {
+        reader.close();
+      } catch (XMLStreamException e) {
+        ;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * read each child element of the current element; on return, the reader is positioned on its end tag
+   *
+   * @param reader
+   * @param sectionName
+   * @param source
+   *          FORM_PARAMETER: an element without content is mapped to null; VARIABLE: it is skipped
+   * @param doVerbose
+   * @throws XMLStreamException
+   */
+  private void readSection(XMLStreamReader reader, String sectionName, byte source, boolean doVerbose)
+      throws XMLStreamException {
+    final boolean doKeepEmpty = source == FORM_PARAMETER;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        return;
+      }
+
+      if (event != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+
+      String name = getName(reader);
+      event = reader.next();
+      boolean hasChild = event != XMLStreamConstants.END_ELEMENT;
+      String value = null;
+      int depth = 1;
+
+      switch (event) {
+      case XMLStreamConstants.CHARACTERS:
+      case XMLStreamConstants.SPACE:
+      case XMLStreamConstants.CDATA:
+        // adjacent text is a single DOM node after normalize(); a CDATA section is a node of its own
+        boolean isCData = event == XMLStreamConstants.CDATA;
+        StringBuilder sb = new StringBuilder(reader.getText());
+        while (true) {
+          event = reader.next();
+          boolean isSameKind = isCData ? event == XMLStreamConstants.CDATA
+              : (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE);
+          if (!isSameKind) {
+            break;
+          }
+          sb.append(reader.getText());
+        }
+        value = sb.toString();
+        break;
+
+      case XMLStreamConstants.COMMENT:
+        value = reader.getText();
+        event = reader.next();
+        break;
+
+      case XMLStreamConstants.PROCESSING_INSTRUCTION:
+        value = reader.getPIData();
+        event = reader.next();
+        break;
+
+      default:
+        break;
+      }
+
+      // skip whatever remains of the element
+      while (true) {
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          ++depth;
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          --depth;
+          if (depth == 0) {
+            break;
+          }
+        }
+        event = reader.next();
+      }
+
+      if (!hasChild && !doKeepEmpty) {
+        continue;
+      }
+
+      if (doVerbose) {
+        logger.debug(sectionName + ", name: " + name + ", value: " + value);
+      }
+      put(name, value, source);
+    }
+  }
+
+  private void put(String name, String value, byte source) {
+    int id = symbolTable.find(name);
+    if (id >= 0 && id < values.length) {
+      // a form_parameter never replaces a variable, whichever comes first in the file
+      if (source == VARIABLE || sources[id] != VARIABLE) {
+        values[id] = value;
+        sources[id] = source;
+      }
+      return;
+    }
+
+    if (source == VARIABLE) {
+      if (extraVariables == null) {
+        extraVariables = new HashMap<>();
+      }
+      extraVariables.put(name.toLowerCase(), value);
+    } else {
+      if (extraFormParameters == null) {
+        extraFormParameters = new HashMap<>();
+      }
+      extraFormParameters.put(name.toLowerCase(), value);
+    }
+  }
+
+  private void clear() {
+    values = new String[0];
+    sources = new byte[0];
+    extraFormParameters = null;
+    extraVariables = null;
+    variableMap = null;
+  }
+
+  private static int size(Map<String, String> map) {
+    return (map == null) ? 0 : map.size();
+  }
+
+  private static String getName(XMLStreamReader reader) {
+    String prefix = reader.getPrefix();
+    String localName = reader.getLocalName();
+    return (prefix == null || prefix.isEmpty()) ? localName : prefix + ":" + localName;
+  }
+
+  /**
+   * @return values indexed by SymbolTable id, with null for names without a value; for CompiledTemplate.render()
+   */
+  public String[] getValues() {
+    if (values == null) {
+      return new String[0];
+    }
+
+    // a form compiled since parsing, such as the one this view is for, may use names that had no id then
+    if (values.length < symbolTable.size() && (extraFormParameters != null || extraVariables != null)) {
+      values = Arrays.copyOf(values, symbolTable.size());
+      sources = Arrays.copyOf(sources, values.length);
+      moveExtras(extraFormParameters, FORM_PARAMETER);
+      moveExtras(extraVariables, VARIABLE);
+    }
+    return values;
+  }
+
+  private void moveExtras(Map<String, String> extras, byte source) {
+    if (extras == null) {
+      return;
+    }
+    Iterator<Map.Entry<String, String>> iterator = extras.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, String> entry = iterator.next();
+      int id = symbolTable.find(entry.getKey());
+      if (id >= 0 && id < values.length) {
+        if (source == VARIABLE || sources[id] != VARIABLE) {
+          values[id] = entry.getValue();
+          sources[id] = source;
+        }
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * @param key
+   *          lower case
+   * @return the value, or null if there isn't one
+   */
+  public String getValue(String key) {
+    int id = symbolTable.find(key);
+    if (values != null && id >= 0 && id < values.length && sources[id] != NONE) {
+      return values[id];
+    }
+    if (extraVariables != null && extraVariables.containsKey(key)) {
+      return extraVariables.get(key);
+    }
+    return (extraFormParameters == null) ? null : extraFormParameters.get(key);
+  }
+
+  /**
+   * @return every name, lower case, and its value, including names no form uses; built on first use
+   */
+  public Map<String, String> getVariableMap() {
+    if (variableMap == null) {
+      Map<String, String> map = new HashMap<>();
+      putAll(map, FORM_PARAMETER, extraFormParameters);
+      putAll(map, VARIABLE, extraVariables);
+      variableMap = map;
+    }
+    return variableMap;
+  }
+
+  private void putAll(Map<String, String> map, byte source, Map<String, String> extras) {
+    if (values != null) {
+      for (int id = 0; id < values.length; ++id) {
+        if (sources[id] == source) {
+          map.put(symbolTable.getName(id), values[id]);
+        }
+      }
+    }
+    if (extras != null) {
+      map.putAll(extras);
+    }
+  }
+}
@@ -0,0 +1,291 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * an access log that never holds up a request
+ *
+ * request threads publish a record into a bounded ring buffer, without locking; a background thread formats records
+ * in batches and writes them, one logging call per batch, through the serverLogger. If the ring is full, the record
+ * is dropped and counted
+ *
+ * lines are in Combined Log Format, followed by the time to handle the request, in milliseconds
+ *
+ * @author bobt
+ *
+ */
+public class AccessLog implements Runnable {
+  private static final Logger logger = LoggerFactory.getLogger(AccessLog.class);
+  private static final Logger serverLogger = LoggerFactory.getLogger("serverLogger");
+
+  private static final int MAX_BATCH = 256;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+  // [10/Oct/2000:13:55:36 -0700]
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter
+      .ofPattern("dd/MMM/yyyy:HH:mm:ss xxxx", Locale.US)
+      .withZone(ZoneId.systemDefault());
+
+  public static class Record {
+    final long epochMillis;
+    final String ip;
+    final String method;
+    final String path;
+    final int status;
+    final long bytes; // negative if not known
+    final long latencyNanos;
+    final String referer;
+    final String userAgent;
+
+    public Record(long epochMillis, String ip, String method, String path, int status, long bytes, long latencyNanos,
+        String referer, String userAgent) {
+      this.epochMillis = epochMillis;
+      this.ip = ip;
+      this.method = method;
+      this.path = path;
+      this.status = status;
+      this.bytes = bytes;
+      this.latencyNanos = latencyNanos;
+      this.referer = referer;
+      this.userAgent = userAgent;
+    }
+  }
+
+  // a bounded multi-producer, single-consumer ring: producers claim a slot by advancing tail, then fill it;
+  // the consumer empties slots in order and advances head
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<Record> slots;
+  private final AtomicLong tail = new AtomicLong();
+  private volatile long head;
+
+  private final LongAdder dropCount = new LongAdder();
+  private final LongAdder writtenCount = new LongAdder();
+
+  private volatile boolean isRunning;
+  private Thread thread;
+
+  private long cachedSecond = Long.MIN_VALUE;
+  private String cachedTimeString;
+
+  /**
+   * @param capacity
+   *          rounded up to a power of two
+   */
+  public AccessLog(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+    this.capacity = size;
+    mask = size - 1;
+    slots = new AtomicReferenceArray<>(size);
+  }
+
+  public synchronized void start() {
+    if (thread == null) {
+      isRunning = true;
+      thread = new Thread(this, "access-log");
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  /**
+   * stop the writer, once everything published so far has been written
+   */
+  public synchronized void stop() {
+    if (thread == null) {
+      return;
+    }
+    isRunning = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    thread = null;
+  }
+
+  /**
+   * publish a record, without blocking
+   *
+   * @param record
+   * @return false if the record was dropped because the ring is full
+   */
+  public boolean publish(Record record) {
+    while (true) {
+      long claim = tail.get();
+      if (claim - head >= capacity) {
+        dropCount.increment();
+        return false;
+      }
+      if (tail.compareAndSet(claim, claim + 1)) {
+        slots.lazySet((int) claim & mask, record);
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    StringBuilder sb = new StringBuilder(MAX_BATCH * 160);
+    long reportedDrops = 0;
+    while (true) {
+      boolean isStopping = !isRunning;
+      int count = drain(sb);
+      if (count > 0) {
+        // the serverLogger pattern is just %msg%n, so a batch goes out as one event
+        serverLogger.info(sb.toString());
+        writtenCount.add(count);
+        sb.setLength(0);
+      }
+
+      long drops = dropCount.sum();
+      if (drops != reportedDrops) {
+        logger.warn("access log full, dropped " + (drops - reportedDrops) + " lines");
+        reportedDrops = drops;
+      }
+
+      if (count == 0) {
+        if (isStopping) {
+          return;
+        }
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+  }
+
+  private int drain(StringBuilder sb) {
+    int count = 0;
+    long position = head;
+    while (count < MAX_BATCH) {
+      int index = (int) position & mask;
+      Record record = slots.get(index);
+      if (record == null) {
+        // empty, or claimed but not yet filled
+        break;
+      }
+      slots.lazySet(index, null);
+      ++position;
+      head = position;
+
+      if (count > 0) {
+        sb.append('\n');
+      }
+      format(record, sb);
+      ++count;
+    }
+    return count;
+  }
+
+  void format(Record record, StringBuilder sb) {
+    sb.append(record.ip).append(" - - [").append(getTimeString(record.epochMillis)).append("] \"");
+    sb.append(record.method).append(' ');
+    // the path ends in the display_form of the upload, so it's as untrusted as the user agent
+    quote(record.path, sb);
+    sb.append("\" ");
+    sb.append(record.status).append(' ');
+    if (record.bytes < 0) {
+      sb.append('-');
+    } else {
+      sb.append(record.bytes);
+    }
+    sb.append(" \"");
+    quote(record.referer, sb);
+    sb.append("\" \"");
+    quote(record.userAgent, sb);
+    sb.append("\" ");
+    long micros = record.latencyNanos / 1000;
+    sb.append(micros / 1000).append('.');
+    long fraction = micros % 1000;
+    if (fraction < 100) {
+      sb.append(fraction < 10 ? "00" : "0");
+    }
+    sb.append(fraction);
+  }
+
+  private String getTimeString(long epochMillis) {
+    long second = epochMillis / 1000;
+    if (second != cachedSecond) {
+      cachedSecond = second;
+      cachedTimeString = TIME_FORMATTER.format(Instant.ofEpochSecond(second));
+    }
+    return cachedTimeString;
+  }
+
+  /**
+   * escape quotes, backslashes and control characters, such as CR/LF, so that a value can't end its field or its line
+   *
+   * @param s
+   * @param sb
+   */
+  private static void quote(String s, StringBuilder sb) {
+    if (s == null || s.isEmpty()) {
+      sb.append('-');
+      return;
+    }
+    for (int i = 0; i < s.length(); ++i) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c == '\r') {
+        sb.append("\\r");
+      } else if (c == '\n') {
+        sb.append("\\n");
+      } else if (c < 0x20 || c == 0x7f) {
+        sb.append("\\x").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xf, 16));
+      } else {
+        sb.append(c);
+      }
+    }
+  }
+
+  public long getDropCount() {
+    return dropCount.sum();
+  }
+
+  public long getWrittenCount() {
+    return writtenCount.sum();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+}
@@ -0,0 +1,303 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.tools.FormRenderer.FormResults;
+
+/**
+ * render many view files at once: entries are read one at a time, rendered on a worker pool and written, in input
+ * order, to a zip of HTML files plus a manifest
+ *
+ * only a bounded window of entries is in flight, and at most maxEntries are rendered, so memory use doesn't depend on
+ * the size of the batch
+ *
+ * @author bobt
+ *
+ */
+public class BatchRenderer {
+  private static final Logger logger = LoggerFactory.getLogger(BatchRenderer.class);
+
+  public static final String MANIFEST_NAME = "manifest.csv";
+
+  private final FormRenderer formRenderer;
+  private final ExecutorService executor;
+  private final int windowSize;
+  private final long maxEntryBytes;
+  private final int maxEntries;
+
+  public BatchRenderer(FormRenderer formRenderer, ExecutorService executor, int windowSize, long maxEntryBytes,
+      int maxEntries) {
+    this.formRenderer = formRenderer;
+    this.executor = executor;
+    this.windowSize = windowSize;
+    this.maxEntryBytes = maxEntryBytes;
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * start a batch, whose results will be written as a zip to outputStream
+   *
+   * @param outputStream
+   * @return
+   */
+  public Batch start(OutputStream outputStream) {
+    return new Batch(outputStream);
+  }
+
+  static class EntryResults {
+    final String inputName;
+    final FormResults results;
+    final String errorMessage;
+
+    EntryResults(String inputName, FormResults results, String errorMessage) {
+      this.inputName = inputName;
+      this.results = results;
+      this.errorMessage = errorMessage;
+    }
+  }
+
+  public class Batch {
+    private final ZipOutputStream zipOutputStream;
+    private final Deque<Future<EntryResults>> pending;
+    private final Set<String> outputNames;
+    private final StringBuilder manifest;
+
+    private int entryCount;
+    private int errorCount;
+    private boolean isFull;
+
+    Batch(OutputStream outputStream) {
+      zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+      pending = new ArrayDeque<>();
+      outputNames = new HashSet<>();
+      manifest = new StringBuilder("input,status,output,message\n");
+    }
+
+    /**
+     * add every file in a zip of view files
+     *
+     * @param inputStream
+     * @throws IOException
+     */
+    public void addZip(InputStream inputStream) throws IOException {
+      ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+      ZipEntry entry;
+      while (!isFull && (entry = zipInputStream.getNextEntry()) != null) {
+        if (!entry.isDirectory()) {
+          add(entry.getName(), zipInputStream);
+        }
+      }
+    }
+
+    /**
+     * add one view file; the stream is read, but not closed
+     *
+     * once there have been maxEntries, the first one over is reported as an error, and it and any more are ignored
+     *
+     * @param inputName
+     * @param inputStream
+     * @throws IOException
+     */
+    public void add(String inputName, InputStream inputStream) throws IOException {
+      if (isFull) {
+        return;
+      }
+      if (entryCount == maxEntries) {
+        isFull = true;
+        addError(inputName, "batch limited to " + maxEntries + " entries, skipping this and any more");
+        return;
+      }
+
+      ++entryCount;
+      byte[] bytes;
+      try {
+        bytes = new LimitedInputStream(inputStream, maxEntryBytes).readAllBytes();
+      } catch (IOException e) {
+        // the entry is too large, or unreadable; if it's the underlying stream, the next read will fail too
+        addError(inputName, e.getMessage());
+        return;
+      }
+
+      waitForWindow();
+      pending.add(executor.submit(() -> {
+        try {
+          return new EntryResults(inputName, formRenderer.generateResults(new ByteArrayInputStream(bytes)), null);
+        } catch (Exception e) {
+          return new EntryResults(inputName, null, String.valueOf(e.getMessage()));
+        }
+      }));
+    }
+
+    /**
+     * report an error for inputName, in its place among the entries
+     *
+     * @param inputName
+     * @param errorMessage
+     * @throws IOException
+     */
+    public void addError(String inputName, String errorMessage) throws IOException {
+      waitForWindow();
+      pending.add(CompletableFuture.completedFuture(new EntryResults(inputName, null, errorMessage)));
+    }
+
+    private void waitForWindow() throws IOException {
+      while (pending.size() >= windowSize) {
+        write(takeFirst());
+      }
+    }
+
+    private EntryResults takeFirst() throws IOException {
+      try {
+        return pending.removeFirst().get();
+      } catch (InterruptedException | ExecutionException e) {
+        throw new IOException(e);
+      }
+    }
+
+    private void write(EntryResults entryResults) throws IOException {
+      FormResults results = entryResults.results;
+      String errorMessage = entryResults.errorMessage;
+      if (results != null && results.responseCode != 200) {
+        errorMessage = results.resultString;
+      }
+
+      if (errorMessage != null) {
+        ++errorCount;
+        appendManifest(entryResults.inputName, "error", "", errorMessage);
+        return;
+      }
+
+      String outputName = makeOutputName(entryResults.inputName);
+      zipOutputStream.putNextEntry(new ZipEntry(outputName));
+      zipOutputStream.write(results.resultString.getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+      appendManifest(entryResults.inputName, "ok", outputName, results.displayFormName);
+    }
+
+    private String makeOutputName(String inputName) {
+      String name = makeSafeName(inputName);
+      int index = name.lastIndexOf('.');
+      String baseName = (index > name.lastIndexOf('/')) ? name.substring(0, index) : name;
+      String outputName = baseName + ".html";
+      for (int i = 2; !outputNames.add(outputName) || outputName.equals(MANIFEST_NAME); ++i) {
+        outputName = baseName + "-" + i + ".html";
+      }
+      return outputName;
+    }
+
+    /**
+     * input names come from the client, so make them safe to unpack: no drive, no root, no "." or ".." segments
+     *
+     * @param inputName
+     * @return a relative path, or a generated name if nothing is left
+     */
+    private String makeSafeName(String inputName) {
+      String name = inputName.replace('\\', '/');
+      if (name.length() >= 2 && name.charAt(1) == ':' && Character.isLetter(name.charAt(0))) {
+        name = name.substring(2);
+      }
+
+      final StringBuilder sb = new StringBuilder();
+      for (String segment : name.split("/")) {
+        if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+          continue;
+        }
+        if (sb.length() > 0) {
+          sb.append('/');
+        }
+        sb.append(segment);
+      }
+      return (sb.length() > 0) ? sb.toString() : "entry";
+    }
+
+    private void appendManifest(String inputName, String status, String outputName, String message) {
+      manifest.append(quote(inputName)).append(',').append(status).append(',');
+      manifest.append(quote(outputName)).append(',').append(quote(message)).append('\n');
+    }
+
+    private String quote(String s) {
+      return "\"" + String.valueOf(s).replace("\"", "\"\"").replace('\n', ' ') + "\"";
+    }
+
+    /**
+     * wait for everything in flight, then write the manifest and finish the zip
+     *
+     * @throws IOException
+     */
+    public void finish() throws IOException {
+      while (pending.size() > 0) {
+        write(takeFirst());
+      }
+
+      zipOutputStream.putNextEntry(new ZipEntry(MANIFEST_NAME));
+      zipOutputStream.write(manifest.toString().getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+      zipOutputStream.finish();
+      zipOutputStream.flush();
+      logger.info("batch rendered " + entryCount + " entries, " + errorCount + " errors");
+    }
+
+    /**
+     * abandon anything still in flight, after a failure
+     */
+    public void cancel() {
+      for (Future<EntryResults> future : pending) {
+        future.cancel(true);
+      }
+      pending.clear();
+    }
+
+    public int getEntryCount() {
+      return entryCount;
+    }
+
+    public int getErrorCount() {
+      return errorCount;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * least-recently-used cache, bounded by the total (estimated) size in bytes of its values
+ *
+ * @author bobt
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class ByteBoundedLruCache<K, V> {
+  private final long maxBytes;
+  private final ToLongFunction<V> weigher;
+  private final LinkedHashMap<K, V> map;
+
+  private final LongAdder evictions = new LongAdder();
+
+  private long totalBytes;
+
+  public ByteBoundedLruCache(long maxBytes, ToLongFunction<V> weigher) {
+    this.maxBytes = maxBytes;
+    this.weigher = weigher;
+    map = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * @param key
+   * @return value, or null if not present
+   */
+  public synchronized V get(K key) {
+    return map.get(key);
+  }
+
+  /**
+   * add or replace a value, then evict least-recently-used entries until under the byte limit
+   *
+   * values larger than the limit are not cached
+   *
+   * @param key
+   * @param value
+   */
+  public synchronized void put(K key, V value) {
+    long weight = weigher.applyAsLong(value);
+    if (weight > maxBytes) {
+      remove(key);
+      return;
+    }
+
+    V oldValue = map.put(key, value);
+    if (oldValue != null) {
+      totalBytes -= weigher.applyAsLong(oldValue);
+    }
+    totalBytes += weight;
+
+    Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+    while (totalBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<K, V> eldest = iterator.next();
+      if (eldest.getKey().equals(key)) {
+        continue;
+      }
+      totalBytes -= weigher.applyAsLong(eldest.getValue());
+      iterator.remove();
+      evictions.increment();
+    }
+  }
+
+  public synchronized V remove(K key) {
+    V oldValue = map.remove(key);
+    if (oldValue != null) {
+      totalBytes -= weigher.applyAsLong(oldValue);
+    }
+    return oldValue;
+  }
+
+  public synchronized void clear() {
+    map.clear();
+    totalBytes = 0;
+  }
+
+  public synchronized int size() {
+    return map.size();
+  }
+
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "{entries: " + size() + ", bytes: " + getTotalBytes() + "/" + maxBytes + ", evictions: "
+        + getEvictionCount() + "}";
+  }
+}
@@ -0,0 +1,92 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * pass everything through, and keep a copy of it, but only up to maxBytes; such as a response that might be cached
+ *
+ * once more than maxBytes have been written, the copy is dropped, and the rest just passes through
+ *
+ * @author bobt
+ *
+ */
+public class CapturingOutputStream extends FilterOutputStream {
+  private final long maxBytes;
+  private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+  public CapturingOutputStream(OutputStream out, long maxBytes) {
+    super(out);
+    this.maxBytes = maxBytes;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    out.write(b);
+    if (copy != null) {
+      copy.write(b);
+      checkSize();
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    out.write(b, off, len);
+    if (copy != null) {
+      // checked first, so the copy never grows beyond maxBytes
+      if (copy.size() + (long) len > maxBytes) {
+        copy = null;
+      } else {
+        copy.write(b, off, len);
+      }
+    }
+  }
+
+  private void checkSize() {
+    if (copy.size() > maxBytes) {
+      copy = null;
+    }
+  }
+
+  /**
+   * @return true if more than maxBytes were written, so there's no copy
+   */
+  public boolean isOverflow() {
+    return copy == null;
+  }
+
+  /**
+   * @return what was written, or null if it was more than maxBytes
+   */
+  public byte[] toByteArray() {
+    return (copy == null) ? null : copy.toByteArray();
+  }
+}
@@ -0,0 +1,110 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * gzip a response whose size isn't known in advance, such as a form rendered straight to the response
+ *
+ * the first minBytes are held back: if the response ends before then, it's sent as is, otherwise the Content-Encoding
+ * header is set and everything is compressed from there on
+ *
+ * @author bobt
+ *
+ */
+public class CompressingOutputStream extends OutputStream {
+  private final HttpServletResponse response;
+  private final OutputStream out;
+  private final int minBytes;
+
+  private ByteArrayOutputStream buffer;
+  private OutputStream target;
+
+  public CompressingOutputStream(HttpServletResponse response, OutputStream out, int minBytes) {
+    this.response = response;
+    this.out = out;
+    this.minBytes = minBytes;
+    buffer = new ByteArrayOutputStream(Math.min(minBytes, 64 * 1024) + 1);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (target != null) {
+      target.write(b, off, len);
+      return;
+    }
+
+    buffer.write(b, off, len);
+    if (buffer.size() >= minBytes) {
+      response.setHeader("Content-Encoding", Compression.GZIP);
+      target = new GZIPOutputStream(out, 8192);
+      buffer.writeTo(target);
+      buffer = null;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    // flushing a deflater mid-stream hurts compression; wait for finish()
+    if (target == null) {
+      return;
+    }
+    out.flush();
+  }
+
+  /**
+   * complete the response, without closing the underlying stream
+   *
+   * @throws IOException
+   */
+  public void finish() throws IOException {
+    if (target == null) {
+      buffer.writeTo(out);
+      buffer = null;
+      target = out;
+    } else if (target instanceof GZIPOutputStream) {
+      ((GZIPOutputStream) target).finish();
+    }
+    out.flush();
+  }
+
+  public boolean isCompressed() {
+    return target instanceof GZIPOutputStream;
+  }
+}
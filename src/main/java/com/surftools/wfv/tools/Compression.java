@@ -0,0 +1,116 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * negotiating and producing gzip'ed responses
+ *
+ * @author bobt
+ *
+ */
+public class Compression {
+  public static final String GZIP = "gzip";
+
+  private Compression() {
+  }
+
+  /**
+   * does the Accept-Encoding header allow a gzip'ed response?
+   *
+   * @param acceptEncoding
+   *          may be null
+   * @return
+   */
+  public static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+
+    Double gzipQuality = null;
+    Double wildcardQuality = null;
+    for (String element : acceptEncoding.split(",")) {
+      String[] fields = element.split(";");
+      String coding = fields[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1d;
+      for (int i = 1; i < fields.length; ++i) {
+        String parameter = fields[i].trim();
+        if (parameter.startsWith("q=")) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2).trim());
+          } catch (NumberFormatException e) {
+            quality = 0d;
+          }
+        }
+      }
+
+      if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+        gzipQuality = quality;
+      } else if (coding.equals("*")) {
+        wildcardQuality = quality;
+      }
+    }
+
+    if (gzipQuality != null) {
+      return gzipQuality > 0;
+    }
+    return wildcardQuality != null && wildcardQuality > 0;
+  }
+
+  public static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
+      gzip.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bos.toByteArray();
+  }
+
+  /**
+   * compress ahead of time, for content that will be served many times
+   *
+   * @param bytes
+   * @param minBytes
+   *          don't bother below this size; negative to never compress
+   * @return the compressed bytes, or null if not worthwhile
+   */
+  public static byte[] precompress(byte[] bytes, int minBytes) {
+    if (minBytes < 0 || bytes.length < minBytes) {
+      return null;
+    }
+
+    byte[] compressed = gzip(bytes);
+    return (compressed.length < bytes.length) ? compressed : null;
+  }
+}
@@ -0,0 +1,164 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.tools.FormRenderer.FormResults;
+
+/**
+ * render every view file in a directory tree to a parallel tree of HTML files, without going through the server
+ *
+ * @author bobt
+ *
+ */
+public class DirectoryRenderer {
+  private static final Logger logger = LoggerFactory.getLogger(DirectoryRenderer.class);
+
+  public static final String VIEW_FILE_EXTENSION = ".xml";
+  public static final String OUTPUT_FILE_EXTENSION = ".html";
+
+  // exit code when any view file couldn't be rendered, so scripts can tell
+  public static final int EXIT_CODE_FAILURES = 2;
+
+  private final FormRenderer formRenderer;
+  private final int parallelism;
+
+  private final LongAdder renderedCount = new LongAdder();
+  private final LongAdder skippedCount = new LongAdder();
+  private final LongAdder failedCount = new LongAdder();
+  private final LongAdder inputBytes = new LongAdder();
+  private final LongAdder outputBytes = new LongAdder();
+
+  public DirectoryRenderer(FormRenderer formRenderer, int parallelism) {
+    this.formRenderer = formRenderer;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * render every view file under inputDir; outputs that are newer than their input are left alone
+   *
+   * @param inputDir
+   * @param outputDir
+   * @throws Exception
+   */
+  public void render(Path inputDir, Path outputDir) throws Exception {
+    long startNanos = System.nanoTime();
+
+    List<Path> inputPaths;
+    try (Stream<Path> stream = Files.walk(inputDir)) {
+      inputPaths = stream.filter(p -> Files.isRegularFile(p))
+          .filter(p -> p.getFileName().toString().toLowerCase().endsWith(VIEW_FILE_EXTENSION))
+          .collect(Collectors.toList());
+    }
+    logger.info("found " + inputPaths.size() + " view files in " + inputDir + ", rendering with " + parallelism
+        + " threads");
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.submit(() -> inputPaths.parallelStream().forEach(p -> renderFile(p, makeOutputPath(inputDir, outputDir, p))))
+          .get();
+    } finally {
+      pool.shutdown();
+    }
+
+    double seconds = (System.nanoTime() - startNanos) / 1e9;
+    logger.info(String.format(
+        "rendered: %d, skipped: %d, failed: %d, in %.2f seconds, %.1f files/second, read: %d bytes, wrote: %d bytes",
+        getRenderedCount(), getSkippedCount(), getFailedCount(), seconds, getRenderedCount() / seconds,
+        inputBytes.sum(), outputBytes.sum()));
+  }
+
+  static Path makeOutputPath(Path inputDir, Path outputDir, Path inputPath) {
+    String relativeName = inputDir.relativize(inputPath).toString();
+    String baseName = relativeName.substring(0, relativeName.length() - VIEW_FILE_EXTENSION.length());
+    return outputDir.resolve(baseName + OUTPUT_FILE_EXTENSION);
+  }
+
+  private void renderFile(Path inputPath, Path outputPath) {
+    try {
+      FileTime inputTime = Files.getLastModifiedTime(inputPath);
+      if (Files.exists(outputPath) && Files.getLastModifiedTime(outputPath).compareTo(inputTime) > 0) {
+        skippedCount.increment();
+        return;
+      }
+
+      FormResults results;
+      try (InputStream inputStream = Files.newInputStream(inputPath)) {
+        results = formRenderer.generateResults(inputStream);
+      }
+      inputBytes.add(Files.size(inputPath));
+
+      if (results.responseCode != 200) {
+        failedCount.increment();
+        logger.warn("failed to render " + inputPath + ": " + results.resultString);
+        return;
+      }
+
+      byte[] bytes = results.resultString.getBytes(StandardCharsets.UTF_8);
+      Files.createDirectories(outputPath.getParent());
+      Files.write(outputPath, bytes);
+      outputBytes.add(bytes.length);
+      renderedCount.increment();
+    } catch (Exception e) {
+      failedCount.increment();
+      logger.warn("failed to render " + inputPath + ": " + e.getMessage());
+    }
+  }
+
+  public long getRenderedCount() {
+    return renderedCount.sum();
+  }
+
+  public long getSkippedCount() {
+    return skippedCount.sum();
+  }
+
+  public long getFailedCount() {
+    return failedCount.sum();
+  }
+
+  /**
+   * @return 0 if everything rendered (or was skipped), else EXIT_CODE_FAILURES
+   */
+  public int getExitCode() {
+    return getFailedCount() == 0 ? 0 : EXIT_CODE_FAILURES;
+  }
+}
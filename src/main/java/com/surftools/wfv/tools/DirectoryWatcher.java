@@ -0,0 +1,187 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * watch a directory (optionally, recursively) and run a callback once changes have settled down
+ *
+ * @author bobt
+ *
+ */
+public class DirectoryWatcher implements Runnable {
+  private static final Logger logger = LoggerFactory.getLogger(DirectoryWatcher.class);
+
+  // wait for a quiet period before firing, so an unzip or a copy results in one callback
+  private static final long QUIET_MILLIS = 1_000;
+
+  private final String name;
+  private final Path dirPath;
+  private final boolean isRecursive;
+  private final Runnable onChange;
+  private final Predicate<Path> filter;
+  private final Map<WatchKey, Path> keyMap;
+
+  private WatchService watchService;
+  private Thread thread;
+
+  public DirectoryWatcher(String name, Path dirPath, boolean isRecursive, Runnable onChange) {
+    this(name, dirPath, isRecursive, onChange, null);
+  }
+
+  /**
+   * @param name
+   * @param dirPath
+   * @param isRecursive
+   * @param onChange
+   * @param filter
+   *          only changes to paths it accepts count, or null for every change
+   */
+  public DirectoryWatcher(String name, Path dirPath, boolean isRecursive, Runnable onChange, Predicate<Path> filter) {
+    this.name = name;
+    this.dirPath = dirPath;
+    this.isRecursive = isRecursive;
+    this.onChange = onChange;
+    this.filter = filter;
+    keyMap = new HashMap<>();
+  }
+
+  /**
+   * register the directory and start watching on a daemon thread
+   *
+   * @throws IOException
+   */
+  public void start() throws IOException {
+    watchService = FileSystems.getDefault().newWatchService();
+    register(dirPath);
+
+    thread = new Thread(this, "watcher-" + name);
+    thread.setDaemon(true);
+    thread.start();
+    logger.info("watching " + name + ": " + dirPath + ", directories: " + keyMap.size());
+  }
+
+  public void stop() {
+    try {
+      if (watchService != null) {
+        watchService.close();
+      }
+    } catch (IOException e) {
+      logger.warn("Exception closing watcher for " + name + ": " + e.getLocalizedMessage());
+    }
+  }
+
+  private void register(Path path) throws IOException {
+    if (!isRecursive) {
+      keyMap.put(path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), path);
+      return;
+    }
+
+    try (Stream<Path> stream = Files.walk(path)) {
+      for (Path dir : (Iterable<Path>) stream.filter(Files::isDirectory)::iterator) {
+        keyMap.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        boolean isChanged = handle(key);
+
+        // drain everything that arrives until things are quiet
+        while ((key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          isChanged |= handle(key);
+        }
+        if (!isChanged) {
+          continue;
+        }
+
+        try {
+          onChange.run();
+        } catch (Exception e) {
+          logger.error("Exception handling change for " + name + ": " + e.getLocalizedMessage(), e);
+        }
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      logger.debug("stopped watching " + name);
+    }
+  }
+
+  /**
+   * @return true if any of the events count, per the filter
+   */
+  private boolean handle(WatchKey key) {
+    boolean isChanged = false;
+    Path dir = keyMap.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      // an overflow has no path, so something we care about might have changed
+      if (dir == null || !(event.context() instanceof Path)) {
+        isChanged = true;
+        continue;
+      }
+
+      Path child = dir.resolve((Path) event.context());
+      isChanged |= (filter == null) || filter.test(child);
+      if (event.kind() == ENTRY_CREATE && isRecursive && Files.isDirectory(child)) {
+        try {
+          register(child);
+        } catch (IOException e) {
+          logger.warn("Exception watching " + child + ": " + e.getLocalizedMessage());
+        }
+      }
+    }
+
+    if (!key.reset()) {
+      keyMap.remove(key);
+    }
+    return isChanged;
+  }
+}
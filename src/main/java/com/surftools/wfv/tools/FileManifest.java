@@ -0,0 +1,236 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * the name, size and CRC-32 of every file in a directory tree, or in a zip file
+ *
+ * written beside an extracted directory, so that the next update can tell which entries changed, and a check can tell
+ * whether the directory is intact, without reading every file again
+ *
+ * @author bobt
+ *
+ */
+public class FileManifest {
+  private static final Logger logger = LoggerFactory.getLogger(FileManifest.class);
+
+  private static final String HEADER = "# crc32 size name";
+
+  public static class Entry {
+    public final String name;
+    public final long size;
+    public final long crc;
+
+    public Entry(String name, long size, long crc) {
+      this.name = name;
+      this.size = size;
+      this.crc = crc;
+    }
+
+    boolean sameContent(Entry other) {
+      return other != null && size == other.size && crc == other.crc;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%08x %d %s", crc, size, name);
+    }
+  }
+
+  // sorted, so that manifests of the same content are the same text
+  private final Map<String, Entry> entryMap;
+
+  private FileManifest(Map<String, Entry> entryMap) {
+    this.entryMap = Collections.unmodifiableMap(entryMap);
+  }
+
+  /**
+   * @param zipFile
+   * @return the manifest of the files in zipFile, from its directory, so nothing is inflated
+   */
+  public static FileManifest of(ZipFile zipFile) {
+    Map<String, Entry> map = new TreeMap<>();
+    zipFile.stream().filter(e -> !e.isDirectory()).forEach(e -> map.put(e.getName(), toEntry(e)));
+    return new FileManifest(map);
+  }
+
+  public static Entry toEntry(ZipEntry zipEntry) {
+    return new Entry(zipEntry.getName(), zipEntry.getSize(), zipEntry.getCrc());
+  }
+
+  /**
+   * read every file under dirPath; for a directory that doesn't have a manifest yet
+   *
+   * @param dirPath
+   * @return
+   * @throws IOException
+   */
+  public static FileManifest scan(Path dirPath) throws IOException {
+    long startMillis = System.currentTimeMillis();
+    List<Path> paths;
+    try (Stream<Path> stream = Files.walk(dirPath)) {
+      paths = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+
+    Map<String, Entry> map = new TreeMap<>();
+    byte[] buffer = new byte[64 * 1024];
+    for (Path path : paths) {
+      CRC32 crc = new CRC32();
+      long size = 0;
+      try (InputStream inputStream = Files.newInputStream(path)) {
+        int n;
+        while ((n = inputStream.read(buffer)) > 0) {
+          crc.update(buffer, 0, n);
+          size += n;
+        }
+      }
+      // zip entry names always use forward slashes
+      String name = dirPath.relativize(path).toString().replace('\\', '/');
+      map.put(name, new Entry(name, size, crc.getValue()));
+    }
+    logger.info("scanned " + map.size() + " files in " + dirPath + " in " + (System.currentTimeMillis() - startMillis)
+        + " msec");
+    return new FileManifest(map);
+  }
+
+  /**
+   * @param manifestPath
+   * @return
+   * @throws IOException
+   *           if it can't be read or isn't a manifest
+   */
+  public static FileManifest read(Path manifestPath) throws IOException {
+    Map<String, Entry> map = new TreeMap<>();
+    for (String line : Files.readAllLines(manifestPath, StandardCharsets.UTF_8)) {
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split(" ", 3);
+      if (fields.length != 3) {
+        throw new IOException("bad line in manifest: " + manifestPath + ", " + line);
+      }
+      try {
+        Entry entry = new Entry(fields[2], Long.parseLong(fields[1]), Long.parseLong(fields[0], 16));
+        map.put(entry.name, entry);
+      } catch (NumberFormatException e) {
+        throw new IOException("bad line in manifest: " + manifestPath + ", " + line);
+      }
+    }
+    return new FileManifest(map);
+  }
+
+  /**
+   * write to a temporary file, then rename, so a reader never sees part of a manifest
+   *
+   * @param manifestPath
+   * @throws IOException
+   */
+  public void write(Path manifestPath) throws IOException {
+    StringBuilder sb = new StringBuilder(HEADER).append("\n");
+    for (Entry entry : entryMap.values()) {
+      sb.append(entry).append("\n");
+    }
+    Path tmpPath = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+    Files.writeString(tmpPath, sb.toString(), StandardCharsets.UTF_8);
+    Files.move(tmpPath, manifestPath, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  public Entry get(String name) {
+    return entryMap.get(name);
+  }
+
+  /**
+   * @param zipEntry
+   * @return true if this manifest has a file with the same name, size and CRC as zipEntry
+   */
+  public boolean matches(ZipEntry zipEntry) {
+    if (zipEntry.getCrc() == -1 || zipEntry.getSize() == -1) {
+      return false;
+    }
+    return toEntry(zipEntry).sameContent(get(zipEntry.getName()));
+  }
+
+  /**
+   * @param newer
+   * @return names of the files that are new, changed or gone in newer, each prefixed by +, * or -
+   */
+  public List<String> diff(FileManifest newer) {
+    List<String> list = new ArrayList<>();
+    for (Entry entry : newer.entryMap.values()) {
+      Entry old = entryMap.get(entry.name);
+      if (old == null) {
+        list.add("+" + entry.name);
+      } else if (!old.sameContent(entry)) {
+        list.add("*" + entry.name);
+      }
+    }
+    for (String name : entryMap.keySet()) {
+      if (!newer.entryMap.containsKey(name)) {
+        list.add("-" + name);
+      }
+    }
+    return list;
+  }
+
+  public int size() {
+    return entryMap.size();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof FileManifest)) {
+      return false;
+    }
+    return diff((FileManifest) other).isEmpty();
+  }
+
+  @Override
+  public int hashCode() {
+    return entryMap.keySet().hashCode();
+  }
+}
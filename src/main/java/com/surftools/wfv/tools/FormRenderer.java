@@ -0,0 +1,206 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.config.ConfigurationKey;
+import com.surftools.wfv.config.IConfigurationManager;
+import com.surftools.wfv.forms.CompiledTemplate;
+import com.surftools.wfv.forms.FormUtils;
+import com.surftools.wfv.forms.FormsRepository;
+import com.surftools.wfv.forms.WinlinkExpressTemplateProcessor;
+import com.surftools.wfv.forms.WinlinkExpressViewerStreamParser;
+import com.surftools.wfv.tools.Metrics.Stage;
+
+/**
+ * the view → form → rendered HTML pipeline, independent of the http server
+ *
+ * @author bobt
+ *
+ */
+public class FormRenderer {
+  private static final Logger logger = LoggerFactory.getLogger(FormRenderer.class);
+
+  public static class FormResults {
+    public final String displayFormName;
+    public final String resultString;
+    public final int responseCode;
+
+    public FormResults(String displayFormName, String resultString, int responseCode) {
+      this.displayFormName = displayFormName;
+      this.resultString = resultString;
+      this.responseCode = responseCode;
+    }
+  }
+
+  private final IConfigurationManager cm;
+  private final FormUtils formUtils;
+  private final Metrics metrics;
+
+  public FormRenderer(IConfigurationManager cm, FormUtils formUtils) {
+    this(cm, formUtils, Metrics.getDefault());
+  }
+
+  /**
+   * @param cm
+   * @param formUtils
+   * @param metrics
+   *          where to record timings and form names, such as a private instance for renders that aren't requests
+   */
+  public FormRenderer(IConfigurationManager cm, FormUtils formUtils, Metrics metrics) {
+    this.cm = cm;
+    this.formUtils = formUtils;
+    this.metrics = metrics;
+  }
+
+  /**
+   * generate output from a view file already in memory, such as the initial view
+   *
+   * @param viewContent
+   * @return
+   * @throws Exception
+   */
+  public FormResults generateResults(String viewContent) throws Exception {
+    WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    long startNanos = System.nanoTime();
+    return generateResults(parser, parser.parse(viewContent, true), startNanos, null);
+  }
+
+  /**
+   * generate output straight from an upload, without first reading it into a String; the character encoding comes
+   * from the XML declaration
+   *
+   * @param inputStream
+   * @return
+   * @throws Exception
+   */
+  public FormResults generateResults(InputStream inputStream) throws Exception {
+    WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    long startNanos = System.nanoTime();
+    return generateResults(parser, parser.parse(inputStream, true), startNanos, null);
+  }
+
+  /**
+   * generate output from an upload straight to writer, so the rendered form never has to be held in memory
+   *
+   * nothing is written unless the responseCode is 200, in which case the resultString is null
+   *
+   * @param inputStream
+   * @param writer
+   * @return
+   * @throws Exception
+   */
+  public FormResults generateResults(InputStream inputStream, Writer writer) throws Exception {
+    WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    long startNanos = System.nanoTime();
+    return generateResults(parser, parser.parse(inputStream, true), startNanos, writer);
+  }
+
+  /**
+   * this is the money shot!
+   *
+   * generate output, given the parsed content of the viewer: find the matching form and substitute values
+   *
+   * @param parser
+   * @param errorMessage
+   *          from parsing, null if ok
+   * @param parseStartNanos
+   *          when parsing started, for metrics
+   * @param writer
+   *          where to write the rendered form, or null to return it as the resultString
+   * @return
+   * @throws Exception
+   */
+  private FormResults generateResults(WinlinkExpressViewerStreamParser parser, String errorMessage,
+      long parseStartNanos, Writer writer) throws Exception {
+    long nanos = System.nanoTime();
+    metrics.recordStage(Stage.PARSE, nanos - parseStartNanos);
+
+    if (errorMessage != null) {
+      ConfigurationKey key = ConfigurationKey.EMSG_CANT_PARSE_VIEW_FILE;
+      String defaultValue = key.getErrorMessage();
+      String template = cm.getAsString(key, defaultValue);
+      errorMessage = String.format(template, errorMessage);
+      logger.warn(errorMessage);
+      return new FormResults(null, errorMessage, 401);
+    }
+
+    String displayFormName = parser.getValue("display_form");
+    logger.debug("displayFormName: " + displayFormName);
+    metrics.recordDisplayForm(displayFormName);
+
+    // one snapshot for the whole request, even if the forms change part way through
+    FormsRepository repository = formUtils.getRepository();
+    Path formPath = repository.find(displayFormName);
+    if (formPath == null) {
+      ConfigurationKey key = ConfigurationKey.EMSG_FORM_NOT_AVAILABLE;
+      String message = String.format(cm.getAsString(key, key.getErrorMessage()), displayFormName);
+      logger.warn(message);
+      return new FormResults(displayFormName, message, 404);
+    }
+
+    nanos = record(Stage.FIND_FORM, nanos);
+    CompiledTemplate formTemplate = repository.getTemplate(formPath);
+    nanos = record(Stage.READ_FORM, nanos);
+    logger.debug("formFile: " + formPath);
+
+    // after the form is compiled, so every name it uses has a slot
+    String[] values = parser.getValues();
+    WinlinkExpressTemplateProcessor tp = new WinlinkExpressTemplateProcessor();
+    if (writer == null) {
+      String resultString = tp.process(formTemplate, values);
+      record(Stage.RENDER, nanos);
+      return new FormResults(displayFormName, resultString, 200);
+    }
+
+    // when writing to a response, this includes any time spent blocked on the client
+    tp.process(formTemplate, values, writer);
+    record(Stage.RENDER, nanos);
+    return new FormResults(displayFormName, null, 200);
+  }
+
+  private long record(Stage stage, long startNanos) {
+    long nanos = System.nanoTime();
+    metrics.recordStage(stage, nanos - startNanos);
+    return nanos;
+  }
+
+  public FormUtils getFormUtils() {
+    return formUtils;
+  }
+
+  public IConfigurationManager getConfigurationManager() {
+    return cm;
+  }
+}
@@ -27,23 +27,31 @@ SOFTWARE.
 
 package com.surftools.wfv.tools;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Map;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import javax.servlet.MultipartConfigElement;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletRequestWrapper;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.Part;
 
+import org.eclipse.jetty.util.thread.ThreadPool;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
 import org.slf4j.Logger;
@@ -53,8 +61,11 @@ import com.surftools.wfv.config.ConfigurationKey;
 import com.surftools.wfv.config.IConfigurationManager;
 import com.surftools.wfv.config.PropertyFileConfigurationManager;
 import com.surftools.wfv.forms.FormUtils;
-import com.surftools.wfv.forms.WinlinkExpressTemplateProcessor;
-import com.surftools.wfv.forms.WinlinkExpressViewerParser;
+import com.surftools.wfv.forms.FormsUpdater;
+import com.surftools.wfv.tools.BatchRenderer.Batch;
+import com.surftools.wfv.tools.FormRenderer.FormResults;
+import com.surftools.wfv.tools.StaticPageCache.Page;
+import com.surftools.wfv.tools.StaticPageCache.PageLoader;
 
 import spark.Request;
 import spark.Response;
@@ -73,18 +84,45 @@ import spark.Spark;
 public class FormViewer {
   private static final Logger logger = LoggerFactory.getLogger(FormViewer.class);
 
-  // create a separate logger so that we can log server access to a file, etc.
-  private static final Logger serverLogger = LoggerFactory.getLogger("serverLogger");
-
   private static final String FV_VERSION = "0.7.1";
 
   private static final String FILE_UPLOAD_URL = "/uploadFile";
   private static final String XHR_UPLOAD_URL = "/uploadXHR";
+  private static final String BATCH_UPLOAD_URL = "/uploadBatch";
   private static final String INITIAL_VIEW_URL = "/sendInitialView";
+  private static final String METRICS_URL = "/metrics";
+  private static final String ADMIN_FORMS_URL = "/admin/forms";
+
+  // request metrics are labeled by route; anything else would let scanners create any number of series
+  private static final Set<String> METRIC_ROUTES = Set
+      .of("/", FILE_UPLOAD_URL, XHR_UPLOAD_URL, BATCH_UPLOAD_URL, INITIAL_VIEW_URL, METRICS_URL, ADMIN_FORMS_URL);
+  private static final String START_NANOS_ATTRIBUTE = "fv.startNanos";
+  private static final String DISPLAY_FORM_ATTRIBUTE = "fv.displayForm";
+  private static final String BYTES_ATTRIBUTE = "fv.bytes";
 
   private static final String DEFAULT_CONFIG_FILE_NAME = "fv.conf";
 
   private static IConfigurationManager cm;
+  private static FormRenderer formRenderer;
+
+  // room for the multipart boundaries and headers, on top of the file itself
+  private static final long MULTIPART_OVERHEAD_BYTES = 16 * 1024;
+
+  private static long maxUploadBytes;
+  private static int uploadFileSizeThreshold;
+  private static long maxBatchBytes;
+  private static BatchRenderer batchRenderer;
+  private static Page initialHtmlPage;
+  private static Page notFoundPage;
+  private static Page initialViewPage;
+  private static RenderedResultCache resultCache;
+  private static int compressionMinBytes;
+  private static AccessLog accessLog;
+  private static FormsUpdater formsUpdater;
+
+  private static final String HTML_CONTENT_TYPE = "text/html; charset=utf-8";
+  private static final String NOT_FOUND_HTML = //
+      "<!DOCTYPE html><html><title>Not Found</title><body><h1>Not Found</h1></body></html>";
 
   @Option(name = "--config-file", metaVar = "CONFIGURATION_FILE_NAME", usage = "path to configuration file, default: "
       + DEFAULT_CONFIG_FILE_NAME, required = false)
@@ -96,6 +134,23 @@ public class FormViewer {
   @Option(name = "--updateForms", usage = "update forms, if available and exit, default: false", required = false)
   private boolean updateForms = false;
 
+  @Option(name = "--render-dir", usage = "render every view file under this directory and exit", required = false)
+  private String renderDirName = null;
+
+  @Option(name = "--out", usage = "directory for HTML rendered by --render-dir", required = false)
+  private String outDirName = null;
+
+  @Option(name = "--threads", usage = "threads used by --render-dir, default: number of processors", required = false)
+  private int threadCount = Runtime.getRuntime().availableProcessors();
+
+  @Option(name = "--warmup", usage = "render every form before accepting requests; without --server, render and exit, "
+      + "default: false", required = false)
+  private boolean warmup = false;
+
+  @Option(name = "--exit-after-start", usage = "start the server, report the startup time and exit, such as to make "
+      + "the class data sharing archive, default: false", required = false)
+  private boolean exitAfterStart = false;
+
   public static void main(String[] args) {
     FormViewer app = new FormViewer();
     CmdLineParser parser = new CmdLineParser(app);
@@ -111,7 +166,9 @@ public class FormViewer {
   private void run() {
     logger.info("Winlink Form Viewer (fv), version: " + FV_VERSION + ", processId: " + ProcessHandle.current().pid());
     try {
+      final StartupTimer startupTimer = new StartupTimer();
       cm = new PropertyFileConfigurationManager(configFileName);
+      startupTimer.mark("config");
 
       if (updateForms) {
         FormUtils formUtils = new FormUtils(cm);
@@ -120,6 +177,28 @@ public class FormViewer {
         System.exit(0);
       }
 
+      if (renderDirName != null) {
+        if (outDirName == null) {
+          logger.error("--out is required with --render-dir. Exiting!");
+          System.exit(1);
+        }
+        FormRenderer renderer = new FormRenderer(cm, new FormUtils(cm));
+        DirectoryRenderer directoryRenderer = new DirectoryRenderer(renderer, threadCount);
+        directoryRenderer.render(Paths.get(renderDirName), Paths.get(outDirName));
+        logger.info("exiting");
+        System.exit(directoryRenderer.getExitCode());
+      }
+
+      if (warmup && !isServer) {
+        FormUtils formUtils = new FormUtils(cm);
+        startupTimer.mark("forms");
+        new Warmup(new FormRenderer(cm, formUtils)).run();
+        startupTimer.mark("warmup");
+        startupTimer.log();
+        logger.info("exiting");
+        System.exit(0);
+      }
+
       if (isServer) {
         final int port = cm.getAsInt(ConfigurationKey.SERVER_PORT, 6676);
         if (!Utils.isPortAvailable(port)) {
@@ -128,21 +207,130 @@ public class FormViewer {
         final String ipAddress = Utils.getLocalIPv4Address();
         final String serverUrl = "http://" + ipAddress + ":" + port;
         logger.info("listening on port: " + serverUrl);
+        startupTimer.mark("address");
+
+        maxUploadBytes = cm.getAsInt(ConfigurationKey.SERVER_UPLOAD_MAX_BYTES, 1024 * 1024);
+        uploadFileSizeThreshold = cm.getAsInt(ConfigurationKey.SERVER_UPLOAD_FILE_SIZE_THRESHOLD, 64 * 1024);
+        compressionMinBytes = cm.getAsInt(ConfigurationKey.SERVER_COMPRESSION_MIN_BYTES, 1024);
+
+        // index the forms once, rather than walking the forms directory on every request
+        FormUtils formUtils = new FormUtils(cm);
+        formUtils.startWatching();
+        formRenderer = new FormRenderer(cm, formUtils);
+        startupTimer.mark("forms");
+
+        // identical uploads are served from the result cache, unless it's disabled with a size of zero
+        final int resultCacheMaxBytes = cm.getAsInt(ConfigurationKey.SERVER_RESULT_CACHE_MAX_BYTES, 0);
+        if (resultCacheMaxBytes > 0) {
+          resultCache = new RenderedResultCache(resultCacheMaxBytes,
+              cm.getAsInt(ConfigurationKey.SERVER_RESULT_CACHE_TTL_SECONDS, 300));
+          formUtils.addChangeListener(resultCache::clear);
+        }
+
+        // batch entries are rendered on a fixed pool, with at most two per worker in flight
+        int configuredBatchThreads = cm.getAsInt(ConfigurationKey.SERVER_BATCH_THREADS, 0);
+        final int batchThreads = (configuredBatchThreads > 0) ? configuredBatchThreads
+            : Runtime.getRuntime().availableProcessors();
+        maxBatchBytes = cm.getAsInt(ConfigurationKey.SERVER_BATCH_MAX_BYTES, 256 * 1024 * 1024);
+        final int maxBatchEntries = cm.getAsInt(ConfigurationKey.SERVER_BATCH_MAX_ENTRIES, 10_000);
+        ExecutorService batchExecutor = Executors.newFixedThreadPool(batchThreads, r -> {
+          Thread thread = new Thread(r, "batch-renderer");
+          thread.setDaemon(true);
+          return thread;
+        });
+        batchRenderer = new BatchRenderer(formRenderer, batchExecutor, 2 * batchThreads, maxUploadBytes,
+            maxBatchEntries);
+
+        // static pages are read once, and reloaded when their directory changes
+        StaticPageCache pageCache = new StaticPageCache(compressionMinBytes);
+        PageLoader htmlLoader = p -> Files.readString(p)
+            .replace("$VERSION", FV_VERSION)
+            .getBytes(StandardCharsets.UTF_8);
+        String initialHtmlFileName = cm.getAsString(ConfigurationKey.SERVER_INITIAL_HTML);
+        if (!new File(initialHtmlFileName).exists()) {
+          Utils.fatal(cm, ConfigurationKey.EMSG_INIT_HTML_NOT_FOUND, initialHtmlFileName);
+        }
+        initialHtmlPage = pageCache.add("initial html", Paths.get(initialHtmlFileName), htmlLoader, null,
+            HTML_CONTENT_TYPE);
+        notFoundPage = pageCache.add("404 html", Paths.get(cm.getAsString(ConfigurationKey.SERVER_404_HTML)),
+            htmlLoader, NOT_FOUND_HTML, HTML_CONTENT_TYPE);
+
+        // the initial view only changes when its file or the forms do, so render it now, and again after changes
+        PageLoader initialViewLoader = p -> {
+          String viewContent = Files.readString(p).replace("$VERSION", FV_VERSION);
+          FormResults results = formRenderer.generateResults(viewContent);
+          if (results.responseCode != 200) {
+            throw new IllegalStateException(results.resultString);
+          }
+          return results.resultString.getBytes(StandardCharsets.UTF_8);
+        };
+        initialViewPage = pageCache.add("initial view",
+            Paths.get(cm.getAsString(ConfigurationKey.SERVER_INITIAL_VIEW)), initialViewLoader, null,
+            HTML_CONTENT_TYPE);
+        formUtils.addChangeListener(initialViewPage::reload);
+        pageCache.startWatching();
+        startupTimer.mark("pages");
+
+        // before the port opens, so the first uploads don't pay for class loading, cold caches and the JIT
+        if (warmup) {
+          new Warmup(formRenderer).run();
+          startupTimer.mark("warmup");
+        }
+
+        // new forms are downloaded and installed in the background, without a prompt or a restart
+        formsUpdater = new FormsUpdater(formUtils);
+        formsUpdater.schedule(1, 60L * cm.getAsInt(ConfigurationKey.FORMS_UPDATE_INTERVAL_HOURS, 24));
+
+        addCacheGauges(formUtils);
+
+        // access log lines are written by a background thread, so requests never wait on the log
+        accessLog = new AccessLog(cm.getAsInt(ConfigurationKey.SERVER_ACCESS_LOG_QUEUE_SIZE, 8192));
+        accessLog.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(accessLog::stop, "access-log-shutdown"));
+        Metrics.getDefault()
+            .addCounter("fv_access_log_dropped_total", "access log lines dropped because the queue was full",
+                accessLog::getDropCount);
+
+        // size the request thread pool from the configuration, or use virtual threads if asked for and available
+        ServerFactory serverFactory = new ServerFactory(cm.getAsString(ConfigurationKey.SERVER_THREADS_MODE,
+            ServerFactory.MODE_POOL), //
+            cm.getAsInt(ConfigurationKey.SERVER_THREADS_MIN, 8), //
+            cm.getAsInt(ConfigurationKey.SERVER_THREADS_MAX, 200), //
+            cm.getAsInt(ConfigurationKey.SERVER_IDLE_TIMEOUT, 60000), //
+            cm.getAsInt(ConfigurationKey.SERVER_ACCEPT_QUEUE, 128));
+        serverFactory.install();
+        addServerGauges(serverFactory);
 
         final Route notFoundHandler = new NotFoundHandler();
         final Route uploadHandler = new UploadHandler();
         final Route initialViewHandler = new InitialViewHandler();
         Spark.port(port);
+        Spark.before((request, response) -> request.attribute(START_NANOS_ATTRIBUTE, System.nanoTime()));
+        Spark.afterAfter((request, response) -> recordRequest(request, response));
         Spark.get("/", new InitHandler());
         Spark.post(FILE_UPLOAD_URL, uploadHandler);
         Spark.post(XHR_UPLOAD_URL, uploadHandler);
+        Spark.post(BATCH_UPLOAD_URL, new BatchHandler());
         Spark.post(INITIAL_VIEW_URL, initialViewHandler);
+        Spark.get(METRICS_URL, new MetricsHandler());
+        Spark.get(ADMIN_FORMS_URL, new AdminFormsHandler());
+        Spark.post(ADMIN_FORMS_URL, new AdminFormsHandler());
         Spark.get("*", notFoundHandler);
         Spark.post("*", notFoundHandler);
         Spark.put("*", notFoundHandler);
         Spark.delete("*", notFoundHandler);
         Spark.init();
-
+        Spark.awaitInitialization();
+        startupTimer.mark("server");
+        startupTimer.log();
+        Metrics.getDefault()
+            .addGauge("fv_startup_seconds", "time from the JVM starting to accepting requests",
+                () -> startupTimer.getTotalMillis() / 1000d);
+
+        if (exitAfterStart) {
+          logger.info("exiting");
+          System.exit(0);
+        }
         return;
       }
 
@@ -155,62 +343,6 @@ public class FormViewer {
 
   }
 
-  /**
-   * this is the money shot!
-   *
-   * generate output, given the content of the viewer: find the matching form and substitute values
-   *
-   * @param viewContent
-   * @return
-   * @throws Exception
-   */
-  private FormResults generateResults(String viewContent) throws Exception {
-    String errorMessage = null;
-    WinlinkExpressViewerParser parser = null;
-    String viewContentLowerCase = viewContent.toLowerCase();
-    if (viewContentLowerCase.startsWith("<?xml version=\"1.0\"?>")
-        && viewContentLowerCase.contains("<rms_express_form>")) {
-      parser = new WinlinkExpressViewerParser();
-      errorMessage = parser.parse(viewContent, true);
-    } else {
-      errorMessage = "uploaded content doesn't appear to be valid Winlink View file";
-    }
-
-    if (errorMessage != null) {
-      ConfigurationKey key = ConfigurationKey.EMSG_CANT_PARSE_VIEW_FILE;
-      String defaultValue = key.getErrorMessage();
-      String template = cm.getAsString(key, defaultValue);
-      errorMessage = String.format(template, errorMessage);
-      logger.warn(errorMessage);
-      return new FormResults(null, errorMessage, 401);
-    }
-
-    String displayFormName = parser.getValue("display_form");
-    logger.debug("displayFormName: " + displayFormName);
-
-    FormUtils formUtils = new FormUtils(cm);
-    String formFileName = formUtils.findFormFile(displayFormName);
-    String formContent = Files.readString(Paths.get(formFileName));
-    logger.debug("formFile: " + formFileName + ", got " + formContent.length() + " bytes");
-
-    Map<String, String> variableMap = parser.getVariableMap();
-    WinlinkExpressTemplateProcessor tp = new WinlinkExpressTemplateProcessor();
-    String resultString = tp.process(formContent, variableMap);
-    return new FormResults(displayFormName, resultString, 200);
-  }
-
-  class FormResults {
-    final String displayFormName;
-    final String resultString;
-    final int responseCode;
-
-    public FormResults(String displayFormName, String resultString, int responseCode) {
-      this.displayFormName = displayFormName;
-      this.resultString = resultString;
-      this.responseCode = responseCode;
-    }
-  }
-
   class NotFoundHandler implements Route {
 
     @Override
@@ -218,16 +350,8 @@ public class FormViewer {
       logger
           .info("not found: host: " + request.ip() + ", method: " + request.requestMethod() + ", pathInfo: "
               + request.pathInfo());
-      response.status(404);
-      String htmlFileName = cm.getAsString(ConfigurationKey.SERVER_404_HTML);
-      File htmlFile = new File(htmlFileName);
-      if (!htmlFile.exists()) {
-        String message = String.format("404 HTML file: %s not found. Substituting!", htmlFileName);
-        logger.warn(message);
-        String html = "<!DOCTYPE html><html><title>Not Found</title><body><h1>Not Found</h1></body></html>";
-        return html;
-      }
-      return Files.readString(Paths.get(htmlFileName));
+      request.attribute(BYTES_ATTRIBUTE, (long) notFoundPage.serve(request, response, 404));
+      return "";
     }
 
   }
@@ -236,17 +360,9 @@ public class FormViewer {
 
     @Override
     public Object handle(Request request, Response response) throws Exception {
-      String initialHtmlFileName = cm.getAsString(ConfigurationKey.SERVER_INITIAL_HTML);
-      File initialHtmlFile = new File(initialHtmlFileName);
-      if (!initialHtmlFile.exists()) {
-        Utils.fatal(cm, ConfigurationKey.EMSG_INIT_HTML_NOT_FOUND, initialHtmlFileName);
-      }
-      String initialContent = Files.readString(Paths.get(initialHtmlFileName));
-
-      initialContent = initialContent.replace("$VERSION", FV_VERSION);
-
-      logger.info("serving initial html from: " + initialHtmlFileName);
-      return initialContent;
+      logger.info("serving initial html from: " + initialHtmlPage.getPath());
+      request.attribute(BYTES_ATTRIBUTE, (long) initialHtmlPage.serve(request, response, 200));
+      return "";
     }
   }
 
@@ -254,42 +370,41 @@ public class FormViewer {
 
     @Override
     public Object handle(Request request, Response response) throws Exception {
-      String initialViewFileName = cm.getAsString(ConfigurationKey.SERVER_INITIAL_VIEW);
-
-      File initialViewFile = new File(initialViewFileName);
-      if (!initialViewFile.exists()) {
-        String message = "initial view file: " + initialViewFile.getCanonicalPath() + " not found";
+      if (initialViewPage.getContent() == null) {
+        String message = "initial view file: " + initialViewPage.getPath() + " not available";
         logger.warn(message);
         response.status(404);
         return message;
       }
 
-      logger.info("serving initial view from: " + initialViewFileName);
-
-      String viewContent = Files.readString(Paths.get(initialViewFileName));
-      viewContent = viewContent.replace("$VERSION", FV_VERSION);
-
-      FormResults results = generateResults(viewContent);
-      response.status(results.responseCode);
-      return results.resultString;
+      logger.info("serving initial view from: " + initialViewPage.getPath());
+      int byteCount = initialViewPage.serve(request, response, 200);
+      request.attribute(BYTES_ATTRIBUTE, (long) byteCount);
+      Metrics.getDefault().recordResponseSize(byteCount);
+      return "";
     }
 
   }
 
   class UploadHandler implements Route {
 
-    @SuppressWarnings("resource")
     @Override
     public Object handle(Request request, Response response) throws Exception {
-      String viewContent = null;
+      InputStream inputStream = null;
       String requestPath = request.pathInfo();
       if (requestPath.equals(FILE_UPLOAD_URL)) {
         logger.info("requestPath: " + requestPath);
 
-        // handle form upload; gets placed into a multipart ...
-        MultipartConfigElement multipartConfigElement = new MultipartConfigElement("");
+        // handle form upload; gets placed into a multipart, spilling to disk above the threshold
+        MultipartConfigElement multipartConfigElement = new MultipartConfigElement("", maxUploadBytes,
+            maxUploadBytes + MULTIPART_OVERHEAD_BYTES, uploadFileSizeThreshold);
         request.raw().setAttribute("org.eclipse.jetty.multipartConfig", multipartConfigElement);
-        Part file = request.raw().getPart("file"); // file is name of the upload form
+        Part file = null;
+        try {
+          file = request.raw().getPart("file"); // file is name of the upload form
+        } catch (IllegalStateException e) {
+          return uploadTooLarge(response);
+        }
 
         if (file == null) {
           Utils.warn(cm, ConfigurationKey.EMSG_NO_UPLOAD_FILE, null);
@@ -297,42 +412,338 @@ public class FormViewer {
           return cm.getAsString(ConfigurationKey.EMSG_NO_UPLOAD_FILE);
         }
 
-        InputStream is = file.getInputStream();
-        viewContent = new BufferedReader(new InputStreamReader(is)).lines().collect(Collectors.joining("\n"));
+        inputStream = file.getInputStream();
       } else if (requestPath.equals(XHR_UPLOAD_URL)) {
-        viewContent = request.body();
+        if (request.raw().getContentLengthLong() > maxUploadBytes) {
+          return uploadTooLarge(response);
+        }
+
+        // Spark's request wrapper would buffer the whole body; read from the container's stream instead
+        inputStream = unwrap(request.raw()).getInputStream();
+      }
+
+      // the form is rendered straight into the response; nothing is written unless it renders successfully
+      response.status(200);
+      response.type("text/html; charset=utf-8");
+      boolean acceptsGzip = false;
+      if (compressionMinBytes >= 0) {
+        response.header("Vary", "Accept-Encoding");
+        acceptsGzip = Compression.acceptsGzip(request.headers("Accept-Encoding"));
+      }
+
+      // count what goes on the wire, after any compression
+      CountingOutputStream countingOutputStream = new CountingOutputStream(response.raw().getOutputStream());
+      CompressingOutputStream compressingOutputStream = null;
+      OutputStream bodyOutputStream = countingOutputStream;
+      if (acceptsGzip) {
+        compressingOutputStream = new CompressingOutputStream(response.raw(), countingOutputStream,
+            compressionMinBytes);
+        bodyOutputStream = compressingOutputStream;
+      }
+
+      // with the result cache, a copy of what's rendered is kept, unless it's too big to cache
+      CapturingOutputStream capturingOutputStream = null;
+      if (resultCache != null) {
+        capturingOutputStream = new CapturingOutputStream(bodyOutputStream, resultCache.getMaxEntryBytes());
+        bodyOutputStream = capturingOutputStream;
+      }
+      Writer writer = new OutputStreamWriter(bodyOutputStream, StandardCharsets.UTF_8);
+
+      FormResults results = null;
+      LimitedInputStream limitedInputStream = new LimitedInputStream(inputStream, maxUploadBytes);
+      try (limitedInputStream) {
+        if (resultCache == null) {
+          results = formRenderer.generateResults(limitedInputStream, writer);
+        } else {
+          results = generateCachedResults(limitedInputStream, writer, capturingOutputStream, countingOutputStream,
+              response, acceptsGzip);
+        }
       }
 
       String fileName = request.headers("X_FILENAME");
-      logger.info("receivedfilename: " + fileName + ", " + viewContent.length() + " bytes");
+      logger.info("receivedfilename: " + fileName + ", " + limitedInputStream.getCount() + " bytes");
+      Metrics.getDefault().recordUploadSize(limitedInputStream.getCount());
+
+      if (results.responseCode == 200) {
+        writer.flush();
+        if (compressingOutputStream != null) {
+          compressingOutputStream.finish();
+        }
+        // commit, so Spark doesn't try to write (or gzip) a body of its own
+        response.raw().flushBuffer();
+        setAccessDetails(request, results.displayFormName, countingOutputStream.getCount());
+        Metrics.getDefault().recordResponseSize(countingOutputStream.getCount());
+        return "";
+      }
+
+      if (limitedInputStream.isLimitExceeded()) {
+        return uploadTooLarge(response);
+      }
 
-      if (viewContent == null || viewContent.length() == 0) {
+      if (limitedInputStream.getCount() == 0) {
         Utils.warn(cm, ConfigurationKey.EMSG_NO_UPLOAD_FILE, null);
         response.status(401);
         return cm.getAsString(ConfigurationKey.EMSG_NO_UPLOAD_FILE);
       }
 
-      FormResults results = generateResults(viewContent);
-      serverLogger.info(commonLogFormat(request, results.displayFormName, results));
+      // Spark writes the message as UTF-8
+      long byteCount = results.resultString.getBytes(StandardCharsets.UTF_8).length;
+      setAccessDetails(request, results.displayFormName, byteCount);
+      Metrics.getDefault().recordResponseSize(byteCount);
       response.status(results.responseCode);
       return results.resultString;
     }
+
+    /**
+     * serve identical uploads from the result cache; on a miss, render to the response as usual, and remember the
+     * bytes if they fit
+     *
+     * the upload has to be read first, for its key, but it's no bigger than server.upload.maxBytes. Like
+     * generateResults(), nothing is written unless the responseCode is 200; results are cached both plain and gzip'ed,
+     * so hits are never compressed again
+     *
+     * @param inputStream
+     * @param writer
+     *          for a miss, through the capturingOutputStream and any compression, to the response
+     * @param capturingOutputStream
+     * @param outputStream
+     *          for a hit, straight to the response
+     * @param response
+     * @param acceptsGzip
+     */
+    private FormResults generateCachedResults(LimitedInputStream inputStream, Writer writer,
+        CapturingOutputStream capturingOutputStream, OutputStream outputStream, Response response,
+        boolean acceptsGzip) throws Exception {
+      byte[] content;
+      try {
+        content = inputStream.readAllBytes();
+      } catch (IOException e) {
+        if (inputStream.isLimitExceeded()) {
+          return new FormResults(null, e.getMessage(), 413);
+        }
+        throw e;
+      }
+
+      if (content.length == 0) {
+        return new FormResults(null, null, 401);
+      }
+
+      String key = RenderedResultCache.makeKey(content, formRenderer.getFormUtils().getFormsVersion());
+      RenderedResultCache.Entry entry = resultCache.get(key);
+      if (entry == null) {
+        FormResults results = formRenderer.generateResults(new ByteArrayInputStream(content), writer);
+        if (results.responseCode == 200) {
+          writer.flush();
+          byte[] bytes = capturingOutputStream.toByteArray();
+          if (bytes != null) {
+            resultCache.put(key, results.displayFormName, bytes, Compression.precompress(bytes, compressionMinBytes));
+          }
+        }
+        logger.debug("result cache: " + resultCache);
+        return results;
+      }
+
+      logger.debug("result cache: " + resultCache);
+      if (acceptsGzip && entry.gzipBytes != null) {
+        response.header("Content-Encoding", Compression.GZIP);
+        outputStream.write(entry.gzipBytes);
+      } else {
+        outputStream.write(entry.bytes);
+      }
+      return new FormResults(entry.displayFormName, null, 200);
+    }
+
+    private String uploadTooLarge(Response response) {
+      ConfigurationKey key = ConfigurationKey.EMSG_UPLOAD_TOO_LARGE;
+      String message = String.format(cm.getAsString(key, key.getErrorMessage()), String.valueOf(maxUploadBytes));
+      logger.warn(message);
+      response.status(413);
+      return message;
+    }
   }
 
-  private String commonLogFormat(Request request, String displayFormName, FormResults results) {
-    // [10/Oct/2000:13:55:36 -0700]
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss xxxx");
-    String timeString = formatter.format(ZonedDateTime.of(LocalDateTime.now(), ZoneId.systemDefault()));
-
-    StringBuilder sb = new StringBuilder();
-    sb.append(request.ip());
-    sb.append(" - - [");
-    sb.append(timeString);
-    sb.append("] ");
-    sb.append("\"POST" + request.pathInfo() + "/" + displayFormName + "\"");
-    sb.append(" " + results.responseCode + " ");
-    sb.append(results.resultString.length());
-    return sb.toString();
+  /**
+   * render a batch of view files, either a zip posted as the body, or a multipart post of zips and/or view files
+   *
+   * the response is a zip of HTML files, plus a manifest, written as each entry completes
+   */
+  class BatchHandler implements Route {
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+      logger.info("requestPath: " + request.pathInfo());
+
+      Collection<Part> parts = null;
+      String contentType = request.contentType();
+      if (contentType != null && contentType.startsWith("multipart/")) {
+        MultipartConfigElement multipartConfigElement = new MultipartConfigElement("", maxBatchBytes,
+            maxBatchBytes + MULTIPART_OVERHEAD_BYTES, uploadFileSizeThreshold);
+        request.raw().setAttribute("org.eclipse.jetty.multipartConfig", multipartConfigElement);
+        try {
+          parts = request.raw().getParts();
+        } catch (IllegalStateException e) {
+          return batchTooLarge(response);
+        }
+
+        parts = parts.stream().filter(p -> p.getSubmittedFileName() != null).collect(Collectors.toList());
+        if (parts.isEmpty()) {
+          Utils.warn(cm, ConfigurationKey.EMSG_NO_UPLOAD_FILE, null);
+          response.status(401);
+          return cm.getAsString(ConfigurationKey.EMSG_NO_UPLOAD_FILE);
+        }
+      } else if (request.raw().getContentLengthLong() > maxBatchBytes) {
+        return batchTooLarge(response);
+      }
+
+      response.status(200);
+      response.type("application/zip");
+      response.header("Content-Disposition", "attachment; filename=\"fv-batch.zip\"");
+
+      Batch batch = batchRenderer.start(response.raw().getOutputStream());
+      try {
+        if (parts == null) {
+          // a chunked body has no length to check up front; once it's too large, the batch ends with an error
+          LimitedInputStream limitedInputStream = new LimitedInputStream(unwrap(request.raw()).getInputStream(),
+              maxBatchBytes);
+          try {
+            batch.addZip(limitedInputStream);
+          } catch (IOException e) {
+            if (!limitedInputStream.isLimitExceeded()) {
+              throw e;
+            }
+            batch.addError("", getBatchTooLargeMessage());
+          }
+        } else {
+          for (Part part : parts) {
+            String name = part.getSubmittedFileName();
+            try (InputStream inputStream = part.getInputStream()) {
+              if (name.toLowerCase().endsWith(".zip")) {
+                batch.addZip(inputStream);
+              } else {
+                batch.add(name, inputStream);
+              }
+            }
+          }
+        }
+        batch.finish();
+      } catch (Exception e) {
+        // the response is already committed, so all we can do is stop
+        batch.cancel();
+        throw e;
+      }
+
+      request.attribute(DISPLAY_FORM_ATTRIBUTE, "batch-" + batch.getEntryCount() + "-" + batch.getErrorCount());
+      return "";
+    }
+
+    private String getBatchTooLargeMessage() {
+      ConfigurationKey key = ConfigurationKey.EMSG_UPLOAD_TOO_LARGE;
+      return String.format(cm.getAsString(key, key.getErrorMessage()), String.valueOf(maxBatchBytes));
+    }
+
+    private String batchTooLarge(Response response) {
+      String message = getBatchTooLargeMessage();
+      logger.warn(message);
+      response.status(413);
+      return message;
+    }
+  }
+
+  class MetricsHandler implements Route {
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+      response.type("text/plain; version=0.0.4; charset=utf-8");
+      String text = Metrics.getDefault().toPrometheus();
+      request.attribute(BYTES_ATTRIBUTE, (long) text.getBytes(StandardCharsets.UTF_8).length);
+      return text;
+    }
+  }
+
+  /**
+   * GET reports the status of forms updates, POST starts one; only from this machine
+   */
+  class AdminFormsHandler implements Route {
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+      response.type("text/plain; charset=utf-8");
+      if (!InetAddress.getByName(request.ip()).isLoopbackAddress()) {
+        logger.warn("refusing " + request.requestMethod() + " " + ADMIN_FORMS_URL + " from " + request.ip());
+        response.status(403);
+        return "forbidden\n";
+      }
+
+      if (request.requestMethod().equals("POST")) {
+        boolean started = formsUpdater.trigger();
+        logger.info("forms update requested, " + (started ? "starting" : "already running"));
+        response.status(started ? 202 : 409);
+      }
+      return formsUpdater.getStatusText();
+    }
+  }
+
+  private static void recordRequest(Request request, Response response) {
+    Long startNanos = request.attribute(START_NANOS_ATTRIBUTE);
+    if (startNanos == null) {
+      return;
+    }
+    long latencyNanos = System.nanoTime() - startNanos;
+    int status = response.raw().getStatus();
+    String route = METRIC_ROUTES.contains(request.pathInfo()) ? request.pathInfo() : "other";
+    Metrics.getDefault().recordRequest(route, status, latencyNanos);
+
+    if (accessLog != null) {
+      String displayFormName = request.attribute(DISPLAY_FORM_ATTRIBUTE);
+      String path = (displayFormName == null) ? request.pathInfo() : request.pathInfo() + "/" + displayFormName;
+      Long bytes = request.attribute(BYTES_ATTRIBUTE);
+      accessLog
+          .publish(new AccessLog.Record(System.currentTimeMillis(), request.ip(), request.requestMethod(), path,
+              status, (bytes == null) ? -1 : bytes, latencyNanos, request.headers("Referer"), request.userAgent()));
+    }
+  }
+
+  /**
+   * for the access log, written once the request completes
+   */
+  private static void setAccessDetails(Request request, String displayFormName, long bytes) {
+    request.attribute(DISPLAY_FORM_ATTRIBUTE, displayFormName);
+    request.attribute(BYTES_ATTRIBUTE, bytes);
+  }
+
+  private static void addCacheGauges(FormUtils formUtils) {
+    Metrics metrics = Metrics.getDefault();
+    // each forms snapshot has its own cache, so these start again from zero when the forms change
+    metrics.addCounter("fv_form_cache_hits_total", "compiled form cache hits",
+        () -> formUtils.getTemplateCache().getHitCount());
+    metrics.addCounter("fv_form_cache_misses_total", "compiled form cache misses",
+        () -> formUtils.getTemplateCache().getMissCount());
+    metrics.addGauge("fv_form_cache_bytes", "compiled form cache size",
+        () -> formUtils.getTemplateCache().getTotalBytes());
+
+    if (resultCache != null) {
+      RenderedResultCache cache = resultCache;
+      metrics.addCounter("fv_result_cache_hits_total", "rendered result cache hits", cache::getHitCount);
+      metrics.addCounter("fv_result_cache_misses_total", "rendered result cache misses", cache::getMissCount);
+      metrics.addGauge("fv_result_cache_hit_ratio", "rendered result cache hit ratio", cache::getHitRatio);
+      metrics.addGauge("fv_result_cache_bytes", "rendered result cache size", cache::getTotalBytes);
+    }
+  }
+
+  private static void addServerGauges(ServerFactory serverFactory) {
+    Metrics metrics = Metrics.getDefault();
+    ThreadPool pool = serverFactory.getThreadPool();
+    metrics.addGauge("fv_server_threads", "request threads", pool::getThreads);
+    metrics.addGauge("fv_server_threads_busy", "request threads that are busy", serverFactory::getBusyThreads);
+    metrics.addGauge("fv_server_queued_requests", "requests waiting for a thread", serverFactory::getQueueSize);
+  }
+
+  private static HttpServletRequest unwrap(HttpServletRequest request) {
+    ServletRequest unwrapped = request;
+    while (unwrapped instanceof ServletRequestWrapper) {
+      unwrapped = ((ServletRequestWrapper) unwrapped).getRequest();
+    }
+    return (HttpServletRequest) unwrapped;
   }
 
   private String getUsageText() {
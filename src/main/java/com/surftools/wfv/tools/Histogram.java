@@ -0,0 +1,108 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * a fixed-bucket histogram that can be recorded into from many threads without locking
+ *
+ * values are recorded as longs, such as nanoseconds or bytes, and scaled on output, such as to seconds
+ *
+ * @author bobt
+ *
+ */
+public class Histogram {
+  private final long[] upperBounds;
+  private final double divisor;
+  private final LongAdder[] bucketCounts; // the last bucket is +Inf
+  private final LongAdder sum = new LongAdder();
+
+  /**
+   * @param upperBounds
+   *          inclusive upper bound of each bucket, ascending, in recorded units
+   * @param divisor
+   *          recorded units per reported unit, such as 1e9 for nanoseconds reported as seconds
+   */
+  public Histogram(long[] upperBounds, double divisor) {
+    this.upperBounds = upperBounds.clone();
+    this.divisor = divisor;
+    bucketCounts = new LongAdder[upperBounds.length + 1];
+    for (int i = 0; i < bucketCounts.length; ++i) {
+      bucketCounts[i] = new LongAdder();
+    }
+  }
+
+  public void record(long value) {
+    int low = 0;
+    int high = upperBounds.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (value <= upperBounds[mid]) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    bucketCounts[low].increment();
+    sum.add(value);
+  }
+
+  /**
+   * write in Prometheus text format; buckets are cumulative
+   *
+   * @param sb
+   * @param name
+   * @param labels
+   *          already formatted, such as stage="parse", or empty
+   */
+  public void write(StringBuilder sb, String name, String labels) {
+    String prefix = labels.isEmpty() ? "" : labels + ",";
+    long cumulative = 0;
+    for (int i = 0; i < upperBounds.length; ++i) {
+      cumulative += bucketCounts[i].sum();
+      sb.append(name).append("_bucket{").append(prefix).append("le=\"");
+      sb.append(Metrics.formatDouble(upperBounds[i] / divisor)).append("\"} ").append(cumulative).append('\n');
+    }
+    cumulative += bucketCounts[upperBounds.length].sum();
+    sb.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+
+    String braced = labels.isEmpty() ? "" : "{" + labels + "}";
+    sb.append(name).append("_sum").append(braced).append(' ');
+    sb.append(Metrics.formatDouble(sum.sum() / divisor)).append('\n');
+    sb.append(name).append("_count").append(braced).append(' ').append(cumulative).append('\n');
+  }
+
+  public long getCount() {
+    long count = 0;
+    for (LongAdder bucketCount : bucketCounts) {
+      count += bucketCount.sum();
+    }
+    return count;
+  }
+}
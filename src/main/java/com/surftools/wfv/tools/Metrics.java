@@ -0,0 +1,256 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * counters and histograms for the server, published in Prometheus text format
+ *
+ * recording only touches LongAdders and ConcurrentHashMap lookups, so it never blocks a request
+ *
+ * @author bobt
+ *
+ */
+public class Metrics {
+  public enum Stage {
+    PARSE("parse"), FIND_FORM("find_form"), READ_FORM("read_form"), RENDER("render");
+
+    private final String label;
+
+    Stage(String label) {
+      this.label = label;
+    }
+  }
+
+  // display_form comes from uploaded content, so don't let it create an unbounded number of series
+  static final int MAX_FORM_NAMES = 500;
+  static final String OTHER = "other";
+
+  private static final long[] LATENCY_BOUNDS_NANOS = { 50_000L, 100_000L, 250_000L, 500_000L, 1_000_000L,
+      2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L, 250_000_000L, 500_000_000L,
+      1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L };
+  private static final long[] SIZE_BOUNDS_BYTES = { 256L, 1024L, 4096L, 16_384L, 65_536L, 262_144L, 1_048_576L,
+      4_194_304L, 16_777_216L };
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private static final Metrics defaultMetrics = new Metrics();
+
+  private final Histogram[] stageHistograms;
+  private final Map<String, Histogram> requestHistograms = new ConcurrentHashMap<>();
+  private final Map<Integer, LongAdder> responseCodeCounts = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> displayFormCounts = new ConcurrentHashMap<>();
+  private final Histogram uploadSizes = new Histogram(SIZE_BOUNDS_BYTES, 1d);
+  private final Histogram responseSizes = new Histogram(SIZE_BOUNDS_BYTES, 1d);
+  private final List<Callback> callbacks = new CopyOnWriteArrayList<>();
+
+  // a value that's owned elsewhere, and read when scraped
+  private static class Callback {
+    final String name;
+    final String help;
+    final String type;
+    final DoubleSupplier supplier;
+
+    Callback(String name, String help, String type, DoubleSupplier supplier) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+      this.supplier = supplier;
+    }
+  }
+
+  public Metrics() {
+    stageHistograms = new Histogram[Stage.values().length];
+    for (int i = 0; i < stageHistograms.length; ++i) {
+      stageHistograms[i] = new Histogram(LATENCY_BOUNDS_NANOS, NANOS_PER_SECOND);
+    }
+  }
+
+  /**
+   * @return the metrics shared by the server, and everything it calls
+   */
+  public static Metrics getDefault() {
+    return defaultMetrics;
+  }
+
+  public void recordStage(Stage stage, long nanos) {
+    stageHistograms[stage.ordinal()].record(nanos);
+  }
+
+  /**
+   * @param route
+   *          a fixed, small set of values, such as the known URLs
+   * @param responseCode
+   * @param nanos
+   */
+  public void recordRequest(String route, int responseCode, long nanos) {
+    requestHistograms.computeIfAbsent(route, k -> new Histogram(LATENCY_BOUNDS_NANOS, NANOS_PER_SECOND))
+        .record(nanos);
+    responseCodeCounts.computeIfAbsent(responseCode, k -> new LongAdder()).increment();
+  }
+
+  public void recordDisplayForm(String displayFormName) {
+    String name = (displayFormName == null) ? "" : displayFormName;
+    LongAdder counter = displayFormCounts.get(name);
+    if (counter == null) {
+      if (displayFormCounts.size() >= MAX_FORM_NAMES) {
+        name = OTHER;
+      }
+      counter = displayFormCounts.computeIfAbsent(name, k -> new LongAdder());
+    }
+    counter.increment();
+  }
+
+  public void recordUploadSize(long bytes) {
+    uploadSizes.record(bytes);
+  }
+
+  public void recordResponseSize(long bytes) {
+    responseSizes.record(bytes);
+  }
+
+  /**
+   * publish a value that's computed when scraped, such as a cache's hit ratio
+   *
+   * @param name
+   * @param help
+   * @param supplier
+   */
+  public void addGauge(String name, String help, DoubleSupplier supplier) {
+    callbacks.add(new Callback(name, help, "gauge", supplier));
+  }
+
+  /**
+   * publish a count that's kept elsewhere, such as a cache's hits
+   *
+   * @param name
+   *          should end with _total
+   * @param help
+   * @param supplier
+   */
+  public void addCounter(String name, String help, DoubleSupplier supplier) {
+    callbacks.add(new Callback(name, help, "counter", supplier));
+  }
+
+  public long getStageCount(Stage stage) {
+    return stageHistograms[stage.ordinal()].getCount();
+  }
+
+  /**
+   * @return everything, in Prometheus text exposition format
+   */
+  public String toPrometheus() {
+    StringBuilder sb = new StringBuilder(16 * 1024);
+
+    header(sb, "fv_stage_duration_seconds", "time spent in each stage of rendering a view file", "histogram");
+    for (Stage stage : Stage.values()) {
+      stageHistograms[stage.ordinal()].write(sb, "fv_stage_duration_seconds", "stage=\"" + stage.label + "\"");
+    }
+
+    header(sb, "fv_request_duration_seconds", "time to handle a request, by route", "histogram");
+    for (Map.Entry<String, Histogram> entry : new TreeMap<>(requestHistograms).entrySet()) {
+      entry.getValue().write(sb, "fv_request_duration_seconds", "route=\"" + escape(entry.getKey()) + "\"");
+    }
+
+    header(sb, "fv_responses_total", "responses, by HTTP status code", "counter");
+    for (Map.Entry<Integer, LongAdder> entry : new TreeMap<>(responseCodeCounts).entrySet()) {
+      sb.append("fv_responses_total{code=\"").append(entry.getKey()).append("\"} ");
+      sb.append(entry.getValue().sum()).append('\n');
+    }
+
+    header(sb, "fv_display_form_total", "rendered view files, by display_form", "counter");
+    for (Map.Entry<String, LongAdder> entry : new TreeMap<>(displayFormCounts).entrySet()) {
+      sb.append("fv_display_form_total{display_form=\"").append(escape(entry.getKey())).append("\"} ");
+      sb.append(entry.getValue().sum()).append('\n');
+    }
+
+    header(sb, "fv_upload_size_bytes", "size of uploaded view files", "histogram");
+    uploadSizes.write(sb, "fv_upload_size_bytes", "");
+
+    header(sb, "fv_response_size_bytes", "size of rendered responses, as sent", "histogram");
+    responseSizes.write(sb, "fv_response_size_bytes", "");
+
+    writeJvm(sb);
+
+    for (Callback callback : callbacks) {
+      header(sb, callback.name, callback.help, callback.type);
+      sb.append(callback.name).append(' ').append(formatDouble(callback.supplier.getAsDouble())).append('\n');
+    }
+
+    return sb.toString();
+  }
+
+  private void writeJvm(StringBuilder sb) {
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    header(sb, "jvm_memory_heap_bytes", "heap memory", "gauge");
+    sb.append("jvm_memory_heap_bytes{area=\"used\"} ").append(heap.getUsed()).append('\n');
+    sb.append("jvm_memory_heap_bytes{area=\"committed\"} ").append(heap.getCommitted()).append('\n');
+    sb.append("jvm_memory_heap_bytes{area=\"max\"} ").append(heap.getMax()).append('\n');
+
+    List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    header(sb, "jvm_gc_collections_total", "garbage collections, by collector", "counter");
+    for (GarbageCollectorMXBean collector : collectors) {
+      sb.append("jvm_gc_collections_total{gc=\"").append(escape(collector.getName())).append("\"} ");
+      sb.append(Math.max(0, collector.getCollectionCount())).append('\n');
+    }
+    header(sb, "jvm_gc_collection_seconds_total", "time spent in garbage collection, by collector", "counter");
+    for (GarbageCollectorMXBean collector : collectors) {
+      sb.append("jvm_gc_collection_seconds_total{gc=\"").append(escape(collector.getName())).append("\"} ");
+      sb.append(formatDouble(Math.max(0, collector.getCollectionTime()) / 1000d)).append('\n');
+    }
+
+    header(sb, "jvm_threads_live", "live threads", "gauge");
+    sb.append("jvm_threads_live ").append(ManagementFactory.getThreadMXBean().getThreadCount()).append('\n');
+  }
+
+  private static void header(StringBuilder sb, String name, String help, String type) {
+    sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  static String escape(String labelValue) {
+    return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  static String formatDouble(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      return Double.isNaN(value) ? "NaN" : (value > 0 ? "+Inf" : "-Inf");
+    }
+    return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+  }
+}
@@ -0,0 +1,178 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * rendered output of uploads, keyed by a hash of the uploaded bytes and the forms version, so that identical uploads
+ * skip parsing and rendering
+ *
+ * bounded by bytes, with least recently used entries evicted first, and entries expire after a time-to-live
+ *
+ * @author bobt
+ *
+ */
+public class RenderedResultCache {
+  private static final Logger logger = LoggerFactory.getLogger(RenderedResultCache.class);
+
+  public static class Entry {
+    public final String displayFormName;
+    public final byte[] bytes;
+    public final byte[] gzipBytes; // null if not worth compressing
+    final long expiresAtNanos;
+
+    Entry(String displayFormName, byte[] bytes, byte[] gzipBytes, long expiresAtNanos) {
+      this.displayFormName = displayFormName;
+      this.bytes = bytes;
+      this.gzipBytes = gzipBytes;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+
+    long weight() {
+      // the key is a 43 character hash plus the version
+      return bytes.length + (gzipBytes == null ? 0 : gzipBytes.length) + 256L;
+    }
+  }
+
+  private final ByteBoundedLruCache<String, Entry> cache;
+  private final long ttlNanos;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  public RenderedResultCache(long maxBytes, long ttlSeconds) {
+    cache = new ByteBoundedLruCache<>(maxBytes, Entry::weight);
+    ttlNanos = ttlSeconds * 1_000_000_000L;
+  }
+
+  /**
+   * make a key for uploaded content
+   *
+   * @param content
+   * @param formsVersion
+   * @return
+   */
+  public static String makeKey(byte[] content, String formsVersion) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(content)) + ":" + formsVersion;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public Entry get(String key) {
+    Entry entry = cache.get(key);
+    if (entry != null && System.nanoTime() - entry.expiresAtNanos > 0) {
+      cache.remove(key);
+      expirations.increment();
+      entry = null;
+    }
+
+    if (entry == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    logger.debug("key: " + key + (entry == null ? ", miss" : ", hit"));
+    return entry;
+  }
+
+  /**
+   * @param key
+   * @param displayFormName
+   * @param bytes
+   * @param gzipBytes
+   *          the same, compressed ahead of time, or null
+   * @return
+   */
+  public Entry put(String key, String displayFormName, byte[] bytes, byte[] gzipBytes) {
+    Entry entry = new Entry(displayFormName, bytes, gzipBytes, System.nanoTime() + ttlNanos);
+    cache.put(key, entry);
+    return entry;
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getExpirationCount() {
+    return expirations.sum();
+  }
+
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  public long getTotalBytes() {
+    return cache.getTotalBytes();
+  }
+
+  public long getMaxBytes() {
+    return cache.getMaxBytes();
+  }
+
+  /**
+   * @return the largest rendered output worth caching; anything bigger would push out too many others
+   */
+  public long getMaxEntryBytes() {
+    return cache.getMaxBytes() / 8;
+  }
+
+  public double getHitRatio() {
+    long hitCount = getHitCount();
+    long total = hitCount + getMissCount();
+    return (total == 0) ? 0d : (double) hitCount / total;
+  }
+
+  @Override
+  public String toString() {
+    return "{entries: " + size() + ", bytes: " + getTotalBytes() + "/" + getMaxBytes() + ", hits: " + getHitCount()
+        + ", misses: " + getMissCount() + ", hitRatio: " + String.format("%.3f", getHitRatio()) + ", expirations: "
+        + getExpirationCount() + ", evictions: " + getEvictionCount() + "}";
+  }
+}
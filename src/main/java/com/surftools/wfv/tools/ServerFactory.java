@@ -0,0 +1,229 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
+import spark.embeddedserver.jetty.JettyServerFactory;
+
+/**
+ * builds the Jetty server that Spark runs on, so that we control its thread pool and accept queue
+ *
+ * requests either run on a bounded pool of platform threads, or (on a JVM that has them) each on its own virtual
+ * thread, so that a request blocked reading a slow upload doesn't hold a pool thread
+ *
+ * @author bobt
+ *
+ */
+public class ServerFactory implements JettyServerFactory {
+  private static final Logger logger = LoggerFactory.getLogger(ServerFactory.class);
+
+  public static final String MODE_POOL = "pool";
+  public static final String MODE_VIRTUAL = "virtual";
+
+  private final int acceptQueueSize;
+  private final ThreadPool threadPool;
+
+  /**
+   *
+   * @param mode
+   *          either MODE_POOL or MODE_VIRTUAL; MODE_VIRTUAL falls back to MODE_POOL when virtual threads aren't
+   *          available
+   * @param minThreads
+   *          smallest pool size
+   * @param maxThreads
+   *          largest pool size, requests queue beyond this
+   * @param idleTimeoutMillis
+   *          how long an idle pool thread is kept
+   * @param acceptQueueSize
+   *          connections the OS will hold before they're accepted, zero for the OS default
+   */
+  public ServerFactory(String mode, int minThreads, int maxThreads, int idleTimeoutMillis, int acceptQueueSize) {
+    this.acceptQueueSize = acceptQueueSize;
+
+    ThreadPool pool = null;
+    if (MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+      pool = VirtualThreadPool.create();
+      if (pool == null) {
+        logger.warn("virtual threads aren't available on Java " + Runtime.version().feature()
+            + ", using a pool of platform threads");
+      }
+    } else if (!MODE_POOL.equalsIgnoreCase(mode)) {
+      logger.warn("unknown thread mode: " + mode + ", using a pool of platform threads");
+    }
+
+    if (pool == null) {
+      QueuedThreadPool queuedThreadPool = new QueuedThreadPool(maxThreads, minThreads, idleTimeoutMillis);
+      queuedThreadPool.setName("fv-server");
+      pool = queuedThreadPool;
+    }
+    threadPool = pool;
+    logger.info("server threads: " + describe());
+  }
+
+  /**
+   * make Spark build its server with this factory; must be called before the first route is mapped
+   */
+  public void install() {
+    EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY, new EmbeddedJettyFactory(this).withThreadPool(threadPool));
+  }
+
+  public ThreadPool getThreadPool() {
+    return threadPool;
+  }
+
+  public boolean isVirtual() {
+    return threadPool instanceof VirtualThreadPool;
+  }
+
+  /**
+   * @return requests waiting for a pool thread; always zero for virtual threads, which are never queued
+   */
+  public int getQueueSize() {
+    return threadPool instanceof QueuedThreadPool ? ((QueuedThreadPool) threadPool).getQueueSize() : 0;
+  }
+
+  public int getBusyThreads() {
+    if (threadPool instanceof QueuedThreadPool) {
+      return ((QueuedThreadPool) threadPool).getBusyThreads();
+    }
+    return threadPool.getThreads() - threadPool.getIdleThreads();
+  }
+
+  public String describe() {
+    if (threadPool instanceof QueuedThreadPool) {
+      QueuedThreadPool pool = (QueuedThreadPool) threadPool;
+      return "pool, min: " + pool.getMinThreads() + ", max: " + pool.getMaxThreads() + ", idleTimeout: "
+          + pool.getIdleTimeout() + "ms, acceptQueue: " + acceptQueueSize;
+    }
+    return "virtual, acceptQueue: " + acceptQueueSize;
+  }
+
+  // Spark calls this when no thread pool was given; we always give one
+  @Override
+  public Server create(int maxThreads, int minThreads, int threadTimeoutMillis) {
+    return create(threadPool);
+  }
+
+  @Override
+  public Server create(ThreadPool pool) {
+    Server server = new Server(pool);
+    if (acceptQueueSize > 0) {
+      // Spark adds its connector after we return, but before starting, and the queue is sized when it opens
+      server.addLifeCycleListener(new AbstractLifeCycle.AbstractLifeCycleListener() {
+        @Override
+        public void lifeCycleStarting(LifeCycle event) {
+          for (Connector connector : server.getConnectors()) {
+            if (connector instanceof ServerConnector) {
+              ((ServerConnector) connector).setAcceptQueueSize(acceptQueueSize);
+            }
+          }
+        }
+      });
+    }
+    return server;
+  }
+
+  /**
+   * runs every task on a new virtual thread
+   *
+   * found by reflection, so that we still build and run on a JVM without virtual threads
+   */
+  static class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+    private final ExecutorService executor;
+    private final AtomicInteger running = new AtomicInteger();
+
+    private VirtualThreadPool(ExecutorService executor) {
+      this.executor = executor;
+    }
+
+    static VirtualThreadPool create() {
+      try {
+        Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return new VirtualThreadPool((ExecutorService) method.invoke(null));
+      } catch (ReflectiveOperationException e) {
+        // not there at all, or a preview feature that isn't enabled
+        return null;
+      }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+      running.incrementAndGet();
+      executor.execute(() -> {
+        try {
+          task.run();
+        } finally {
+          running.decrementAndGet();
+        }
+      });
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+      executor.shutdownNow();
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+      while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+        continue;
+      }
+    }
+
+    @Override
+    public int getThreads() {
+      return running.get();
+    }
+
+    @Override
+    public int getIdleThreads() {
+      return 0;
+    }
+
+    @Override
+    public boolean isLowOnThreads() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * how long each phase of startup takes, from the JVM starting to the server accepting requests
+ *
+ * the first phase, jvm, is everything before main(): starting the JVM, and loading and initializing our classes
+ *
+ * @author bobt
+ *
+ */
+public class StartupTimer {
+  private static final Logger logger = LoggerFactory.getLogger(StartupTimer.class);
+
+  private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+  private long lastNanos;
+
+  public StartupTimer() {
+    this(ManagementFactory.getRuntimeMXBean().getUptime());
+  }
+
+  /**
+   * @param jvmMillis
+   *          time already spent before the timer was created
+   */
+  StartupTimer(long jvmMillis) {
+    phaseMillis.put("jvm", jvmMillis);
+    lastNanos = System.nanoTime();
+  }
+
+  /**
+   * end the current phase, and start the next
+   *
+   * @param phase
+   *          what was done since the last mark, such as "forms"
+   * @return the milliseconds spent in the phase
+   */
+  public synchronized long mark(String phase) {
+    long nanos = System.nanoTime();
+    long millis = (nanos - lastNanos) / 1_000_000;
+    phaseMillis.merge(phase, millis, Long::sum);
+    lastNanos = nanos;
+    return millis;
+  }
+
+  public synchronized long getTotalMillis() {
+    return phaseMillis.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  public synchronized Map<String, Long> getPhaseMillis() {
+    return new LinkedHashMap<>(phaseMillis);
+  }
+
+  /**
+   * @return such as: "startup: 1234 msec (jvm: 310, config: 12, forms: 85, warmup: 640, server: 187)"
+   */
+  public synchronized String report() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("startup: ").append(getTotalMillis()).append(" msec (");
+    String separator = "";
+    for (Map.Entry<String, Long> entry : phaseMillis.entrySet()) {
+      sb.append(separator).append(entry.getKey()).append(": ").append(entry.getValue());
+      separator = ", ";
+    }
+    return sb.append(")").toString();
+  }
+
+  public void log() {
+    logger.info(report());
+  }
+}
@@ -0,0 +1,293 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import spark.Request;
+import spark.Response;
+
+/**
+ * pages that are loaded once, kept as encoded bytes, and reloaded when their file changes
+ *
+ * responses carry a strong ETag and Last-Modified, so browsers can revalidate with a 304 rather than a download
+ *
+ * pages are also kept gzip'ed, when worthwhile, for clients that accept it
+ *
+ * @author bobt
+ *
+ */
+public class StaticPageCache {
+  private static final Logger logger = LoggerFactory.getLogger(StaticPageCache.class);
+
+  private static final DateTimeFormatter HTTP_DATE_FORMATTER = DateTimeFormatter.RFC_1123_DATE_TIME
+      .withZone(ZoneOffset.UTC);
+
+  /**
+   * produce the bytes for a page from its file
+   */
+  @FunctionalInterface
+  public interface PageLoader {
+    byte[] load(Path path) throws Exception;
+  }
+
+  /**
+   * an immutable, loaded version of a page
+   */
+  public static class PageContent {
+    public final byte[] bytes;
+    public final String etag;
+    public final byte[] gzipBytes; // null if not worth compressing
+    public final String gzipETag;
+    public final long lastModifiedMillis;
+    public final String lastModified;
+
+    public PageContent(byte[] bytes, long lastModifiedMillis, int compressionMinBytes) {
+      this.bytes = bytes;
+      this.etag = makeETag(bytes);
+      this.gzipBytes = Compression.precompress(bytes, compressionMinBytes);
+      // each representation needs its own strong validator
+      this.gzipETag = (gzipBytes == null) ? null : etag.substring(0, etag.length() - 1) + "-gz\"";
+      // HTTP dates only have a resolution of seconds
+      this.lastModifiedMillis = (lastModifiedMillis / 1000) * 1000;
+      this.lastModified = HTTP_DATE_FORMATTER.format(Instant.ofEpochMilli(this.lastModifiedMillis));
+    }
+  }
+
+  public class Page {
+    private final String name;
+    private final Path path;
+    private final PageLoader loader;
+    private final byte[] fallbackBytes;
+    private final String contentType;
+    private volatile PageContent content;
+
+    private Page(String name, Path path, PageLoader loader, byte[] fallbackBytes, String contentType) {
+      this.name = name;
+      this.path = path;
+      this.loader = loader;
+      this.fallbackBytes = fallbackBytes;
+      this.contentType = contentType;
+    }
+
+    /**
+     * (re)load from the file; if that fails, keep what we had, else use the fallback, if any
+     *
+     * @return true if content is available
+     */
+    public boolean reload() {
+      try {
+        long lastModifiedMillis = Files.getLastModifiedTime(path).toMillis();
+        content = new PageContent(loader.load(path), lastModifiedMillis, compressionMinBytes);
+        logger.info("loaded " + name + " from: " + path + ", " + content.bytes.length + " bytes");
+        return true;
+      } catch (Exception e) {
+        if (content == null && fallbackBytes != null) {
+          logger.warn("can't load " + name + " from: " + path + ", " + e.getMessage() + ". Substituting!");
+          content = new PageContent(fallbackBytes, System.currentTimeMillis(), compressionMinBytes);
+        } else {
+          logger.warn("can't load " + name + " from: " + path + ", " + e.getMessage());
+        }
+        return content != null;
+      }
+    }
+
+    /**
+     * force a reload on next use, such as when something other than the file, like the forms, has changed
+     */
+    public void invalidate() {
+      content = null;
+    }
+
+    public PageContent getContent() {
+      PageContent pageContent = content;
+      if (pageContent == null) {
+        reload();
+        pageContent = content;
+      }
+      return pageContent;
+    }
+
+    public Path getPath() {
+      return path;
+    }
+
+    /**
+     * write the page, or a 304 if the client's copy is current; there must be content, see getContent()
+     *
+     * @param request
+     * @param response
+     * @param status
+     *          conditional requests are only honored for 200 responses to GET or HEAD
+     * @return the number of bytes written, for the access log
+     * @throws IOException
+     */
+    public int serve(Request request, Response response, int status) throws IOException {
+      PageContent pageContent = getContent();
+      boolean isGzip = pageContent.gzipBytes != null && Compression.acceptsGzip(request.headers("Accept-Encoding"));
+      String etag = isGzip ? pageContent.gzipETag : pageContent.etag;
+
+      HttpServletResponse rawResponse = response.raw();
+      rawResponse.setHeader("ETag", etag);
+      rawResponse.setHeader("Last-Modified", pageContent.lastModified);
+      rawResponse.setHeader("Cache-Control", "no-cache");
+      if (pageContent.gzipBytes != null) {
+        rawResponse.setHeader("Vary", "Accept-Encoding");
+      }
+
+      String method = request.requestMethod();
+      boolean isConditional = status == 200 && (method.equals("GET") || method.equals("HEAD"));
+      if (isConditional && isNotModified(request.raw(), etag, pageContent.lastModifiedMillis)) {
+        response.status(304);
+        return 0;
+      }
+
+      byte[] bytes = isGzip ? pageContent.gzipBytes : pageContent.bytes;
+      response.status(status);
+      response.type(contentType);
+      if (isGzip) {
+        rawResponse.setHeader("Content-Encoding", Compression.GZIP);
+      }
+      rawResponse.setContentLength(bytes.length);
+      rawResponse.getOutputStream().write(bytes);
+      // commit, so Spark doesn't try to write (or gzip) a body of its own
+      rawResponse.flushBuffer();
+      return bytes.length;
+    }
+  }
+
+  private final Map<Path, List<Page>> pagesByDir;
+  private final List<DirectoryWatcher> watchers;
+  private final int compressionMinBytes;
+
+  /**
+   * @param compressionMinBytes
+   *          pages smaller than this aren't compressed; negative to never compress
+   */
+  public StaticPageCache(int compressionMinBytes) {
+    this.compressionMinBytes = compressionMinBytes;
+    pagesByDir = new LinkedHashMap<>();
+    watchers = new ArrayList<>();
+  }
+
+  /**
+   * add a page and load it now
+   *
+   * @param name
+   *          for logging
+   * @param path
+   * @param loader
+   * @param fallbackHtml
+   *          served if the file can't be loaded, may be null
+   * @param contentType
+   * @return
+   */
+  public synchronized Page add(String name, Path path, PageLoader loader, String fallbackHtml, String contentType) {
+    path = path.toAbsolutePath().normalize();
+    byte[] fallbackBytes = (fallbackHtml == null) ? null : fallbackHtml.getBytes(StandardCharsets.UTF_8);
+    Page page = new Page(name, path, loader, fallbackBytes, contentType);
+    page.reload();
+    pagesByDir.computeIfAbsent(path.getParent(), k -> new ArrayList<>()).add(page);
+    return page;
+  }
+
+  /**
+   * watch the directories holding our pages, reloading a directory's pages when anything in it changes
+   */
+  public synchronized void startWatching() {
+    for (Map.Entry<Path, List<Page>> entry : pagesByDir.entrySet()) {
+      List<Page> pages = entry.getValue();
+      Runnable onChange = () -> pages.forEach(Page::reload);
+      DirectoryWatcher watcher = new DirectoryWatcher("pages", entry.getKey(), false, onChange);
+      try {
+        watcher.start();
+        watchers.add(watcher);
+      } catch (IOException e) {
+        logger.warn("can't watch " + entry.getKey() + ", pages won't be reloaded: " + e.getMessage());
+      }
+    }
+  }
+
+  public synchronized void stopWatching() {
+    watchers.forEach(DirectoryWatcher::stop);
+    watchers.clear();
+  }
+
+  static boolean isNotModified(HttpServletRequest request, String etag, long lastModifiedMillis) {
+    // If-None-Match takes precedence; If-Modified-Since is only considered without it
+    String ifNoneMatch = request.getHeader("If-None-Match");
+    if (ifNoneMatch != null) {
+      for (String tag : ifNoneMatch.split(",")) {
+        tag = tag.trim();
+        // weak comparison (RFC 7232): W/"x" matches "x", such as from a proxy that re-encoded the response
+        if (tag.startsWith("W/")) {
+          tag = tag.substring(2);
+        }
+        if (tag.equals("*") || tag.equals(etag)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    try {
+      long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+      return ifModifiedSince != -1 && lastModifiedMillis <= ifModifiedSince;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  static String makeETag(byte[] bytes) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(bytes);
+      return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.forms.FormUtils;
+
+/**
+ * render every form in the index with a synthetic view, before the server accepts requests
+ *
+ * this loads the classes, fills the form cache and gives the JIT enough renders to compile the parse and render path,
+ * so the first real uploads don't pay for any of that. Renders are recorded in a private Metrics, so the request
+ * metrics only ever count requests
+ *
+ * @author bobt
+ *
+ */
+public class Warmup {
+  private static final Logger logger = LoggerFactory.getLogger(Warmup.class);
+
+  // enough for the JIT to compile the hot loops; cycling through the forms until there have been this many renders
+  static final int DEFAULT_MIN_RENDERS = 2000;
+
+  // but don't hold up startup for long on a slow machine
+  static final long DEFAULT_MAX_MILLIS = 20_000;
+
+  private final FormRenderer renderer;
+  private final int minRenders;
+  private final long maxMillis;
+
+  private int renderCount;
+  private int failureCount;
+
+  public Warmup(FormRenderer renderer) {
+    this(renderer, DEFAULT_MIN_RENDERS, DEFAULT_MAX_MILLIS);
+  }
+
+  public Warmup(FormRenderer renderer, int minRenders, long maxMillis) {
+    // same forms, but renders aren't counted as requests
+    this.renderer = new FormRenderer(renderer.getConfigurationManager(), renderer.getFormUtils(), new Metrics());
+    this.minRenders = minRenders;
+    this.maxMillis = maxMillis;
+  }
+
+  /**
+   * render every form at least once, then keep going until minRenders or maxMillis
+   *
+   * @return the number of forms rendered
+   */
+  public int run() {
+    final long startMillis = System.currentTimeMillis();
+    final List<String> formNames = getFormNames(renderer.getFormUtils());
+    if (formNames.isEmpty()) {
+      logger.warn("no forms to warm up");
+      return 0;
+    }
+
+    final List<byte[]> views = new ArrayList<>(formNames.size());
+    for (String formName : formNames) {
+      views.add(makeView(formName).getBytes(StandardCharsets.UTF_8));
+    }
+
+    final Writer writer = Writer.nullWriter();
+    int pass = 0;
+    do {
+      for (byte[] view : views) {
+        render(view, writer, pass);
+      }
+      ++pass;
+    } while (renderCount < minRenders && System.currentTimeMillis() - startMillis < maxMillis);
+
+    logger
+        .info("warmed up " + formNames.size() + " forms, " + renderCount + " renders, " + failureCount
+            + " failures, in " + pass + " passes, " + (System.currentTimeMillis() - startMillis) + " msec");
+    return formNames.size();
+  }
+
+  private void render(byte[] view, Writer writer, int pass) {
+    ++renderCount;
+    try {
+      // both the streamed path, used by uploads, and the String path, used by batches and the initial view
+      int responseCode = (renderCount % 2 == 0) //
+          ? renderer.generateResults(new ByteArrayInputStream(view), writer).responseCode
+          : renderer.generateResults(new ByteArrayInputStream(view)).responseCode;
+      if (responseCode != 200) {
+        ++failureCount;
+      }
+    } catch (Exception e) {
+      ++failureCount;
+      // each form fails the same way every pass, so only say so once
+      if (pass == 0) {
+        logger.debug("Exception warming up: " + e.getLocalizedMessage());
+      }
+    }
+  }
+
+  /**
+   * @return the names of the forms that can be displayed, in a fixed order
+   */
+  static List<String> getFormNames(FormUtils formUtils) {
+    List<String> formNames = new ArrayList<>();
+    for (String name : formUtils.getFormIndex().getNames()) {
+      String lowerName = name.toLowerCase();
+      if (lowerName.endsWith(".html") || lowerName.endsWith(".htm")) {
+        formNames.add(name);
+      }
+    }
+    Collections.sort(formNames);
+    return formNames;
+  }
+
+  /**
+   * @param displayFormName
+   * @return a view file, as Winlink Express would send, for the form
+   */
+  static String makeView(String displayFormName) {
+    return "<?xml version=\"1.0\"?>\n" //
+        + "<RMS_Express_Form>\n" //
+        + "  <form_parameters>\n" //
+        + "    <xml_file_version>1.0</xml_file_version>\n" //
+        + "    <senders_callsign>N0CALL</senders_callsign>\n" //
+        + "    <display_form>" + escape(displayFormName) + "</display_form>\n" //
+        + "  </form_parameters>\n" //
+        + "  <variables>\n" //
+        + "    <msgsender>N0CALL</msgsender>\n" //
+        + "    <msgto>N0CALL</msgto>\n" //
+        + "    <subjectline>warmup</subjectline>\n" //
+        + "    <from_name>&quot;Warm Up&quot;</from_name>\n" //
+        + "    <message>a synthetic view, rendered at startup</message>\n" //
+        + "  </variables>\n" //
+        + "</RMS_Express_Form>\n";
+  }
+
+  private static String escape(String s) {
+    return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+  }
+
+  public int getRenderCount() {
+    return renderCount;
+  }
+
+  public int getFailureCount() {
+    return failureCount;
+  }
+}
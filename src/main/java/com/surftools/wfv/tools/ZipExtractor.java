@@ -0,0 +1,230 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * extract every entry of a zip file, several at a time
+ *
+ * ZipFile reads entries independently, so each worker inflates and writes its own entry. Each entry's CRC is checked
+ * as it's written, so a corrupt download is caught here rather than when a form is rendered
+ *
+ * given the directory and manifest of an earlier extraction, entries that haven't changed, in the zip or on disk, are
+ * hard linked from there instead of being extracted again
+ *
+ * @author bobt
+ *
+ */
+public class ZipExtractor {
+  private static final Logger logger = LoggerFactory.getLogger(ZipExtractor.class);
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final int parallelism;
+
+  private final LongAdder entryCount = new LongAdder();
+  private final LongAdder byteCount = new LongAdder();
+  private final LongAdder linkCount = new LongAdder();
+
+  public ZipExtractor(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * extract everything in zipFile under targetDir, which is created if needed
+   *
+   * @param zipFile
+   * @param targetDir
+   * @throws IOException
+   *           if an entry can't be written, has a bad CRC, or would land outside targetDir
+   */
+  public void extract(ZipFile zipFile, Path targetDir) throws IOException {
+    extract(zipFile, targetDir, null, null);
+  }
+
+  /**
+   * extract what's changed in zipFile since previousDir was extracted, and link the rest
+   *
+   * @param zipFile
+   * @param targetDir
+   * @param previousDir
+   *          an earlier extraction, or null to extract everything
+   * @param previousManifest
+   *          the manifest of previousDir, or null to extract everything
+   * @throws IOException
+   *           if an entry can't be written, has a bad CRC, or would land outside targetDir
+   */
+  public void extract(ZipFile zipFile, Path targetDir, Path previousDir, FileManifest previousManifest)
+      throws IOException {
+    long startNanos = System.nanoTime();
+    Path rootPath = Files.createDirectories(targetDir).toAbsolutePath().normalize();
+
+    List<? extends ZipEntry> entries = zipFile.stream().collect(Collectors.toList());
+
+    // directories first, so the workers only ever write files
+    for (ZipEntry entry : entries) {
+      Path path = resolve(rootPath, entry);
+      Files.createDirectories(entry.isDirectory() ? path : path.getParent());
+    }
+
+    Path previousRoot = (previousDir == null) ? null : previousDir.toAbsolutePath().normalize();
+    List<? extends ZipEntry> fileEntries = entries.stream().filter(e -> !e.isDirectory()).collect(Collectors.toList());
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.submit(() -> fileEntries.parallelStream().forEach(e -> {
+        if (previousManifest == null || !previousManifest.matches(e) || !linkEntry(e, rootPath, previousRoot)) {
+          extractEntry(zipFile, e, rootPath);
+        }
+      })).get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      throw new IOException("can't extract " + zipFile.getName() + ": " + cause.getMessage(), cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted extracting " + zipFile.getName());
+    } finally {
+      pool.shutdown();
+    }
+
+    logger.info(String.format("extracted %d files, %d bytes, linked %d files, from %s to %s with %d threads in %d msec",
+        getEntryCount(), getByteCount(), getLinkCount(), zipFile.getName(), targetDir, parallelism,
+        (System.nanoTime() - startNanos) / 1_000_000));
+  }
+
+  /**
+   * hard link the unchanged file from previousDir
+   *
+   * the manifest says what was extracted there, not what's there now: a form edited by hand since then is extracted
+   * again, not carried forward
+   *
+   * @return false if it can't be linked, such as on a file system without hard links, or if the file on disk no
+   *         longer matches entry, so it should be extracted
+   */
+  private boolean linkEntry(ZipEntry entry, Path rootPath, Path previousDir) {
+    try {
+      Path path = resolve(rootPath, entry);
+      Path previousPath = previousDir.resolve(entry.getName()).normalize();
+      if (!previousPath.startsWith(previousDir) || !Files.isRegularFile(previousPath)
+          || Files.size(previousPath) != entry.getSize() || getCrc(previousPath) != entry.getCrc()) {
+        return false;
+      }
+      Files.createLink(path, previousPath);
+      linkCount.increment();
+      return true;
+    } catch (IOException | UnsupportedOperationException e) {
+      logger.debug("can't link " + entry.getName() + ", extracting: " + e.getMessage());
+      return false;
+    }
+  }
+
+  private static long getCrc(Path path) throws IOException {
+    CRC32 crc = new CRC32();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    try (InputStream inputStream = Files.newInputStream(path)) {
+      int n;
+      while ((n = inputStream.read(buffer)) > 0) {
+        crc.update(buffer, 0, n);
+      }
+    }
+    return crc.getValue();
+  }
+
+  /**
+   * @return where entry belongs under rootPath
+   * @throws IOException
+   *           if that's not under rootPath, such as for a name like ../../etc/passwd
+   */
+  static Path resolve(Path rootPath, ZipEntry entry) throws IOException {
+    Path path = rootPath.resolve(entry.getName()).normalize();
+    if (!path.startsWith(rootPath) || path.equals(rootPath)) {
+      throw new IOException("zip entry outside of target directory: " + entry.getName());
+    }
+    return path;
+  }
+
+  private void extractEntry(ZipFile zipFile, ZipEntry entry, Path rootPath) {
+    try {
+      Path path = resolve(rootPath, entry);
+      CRC32 crc = new CRC32();
+      long bytes = 0;
+      byte[] buffer = new byte[BUFFER_SIZE];
+      try (InputStream inputStream = zipFile.getInputStream(entry);
+          OutputStream outputStream = Files.newOutputStream(path)) {
+        int n;
+        while ((n = inputStream.read(buffer)) > 0) {
+          crc.update(buffer, 0, n);
+          outputStream.write(buffer, 0, n);
+          bytes += n;
+        }
+      }
+
+      if (entry.getCrc() != -1 && entry.getCrc() != crc.getValue()) {
+        throw new IOException("bad CRC for zip entry: " + entry.getName());
+      }
+      if (entry.getLastModifiedTime() != null) {
+        Files.setLastModifiedTime(path, entry.getLastModifiedTime());
+      }
+      entryCount.increment();
+      byteCount.add(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public long getEntryCount() {
+    return entryCount.sum();
+  }
+
+  public long getByteCount() {
+    return byteCount.sum();
+  }
+
+  public long getLinkCount() {
+    return linkCount.sum();
+  }
+}
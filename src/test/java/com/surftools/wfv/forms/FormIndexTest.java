@@ -0,0 +1,96 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class FormIndexTest {
+  private static final Logger logger = LoggerFactory.getLogger(FormIndexTest.class);
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void test_find() throws Exception {
+    logger.debug("begin test_find");
+    final File root = tmpFolder.newFolder("forms");
+    final Path formPath = Files.createDirectories(root.toPath().resolve("StandardForms-10142/ICS USA Forms"));
+    Files.writeString(formPath.resolve("ICS213_Initial_Viewer.html"), "<html></html>");
+    Files.writeString(formPath.resolve("ICS309_Viewer.html"), "<html></html>");
+
+    final FormIndex index = FormIndex.build(root.toPath());
+    assertEquals(2, index.size());
+    final Path found = index.find("ICS213_Initial_Viewer.html");
+    assertNotNull(found);
+    assertEquals(formPath.resolve("ICS213_Initial_Viewer.html").toFile().getCanonicalPath(), found.toString());
+    assertNull(index.find("no such form.html"));
+    assertFalse(index.isDuplicate("ICS309_Viewer.html"));
+    logger.debug("end test_find");
+  }
+
+  @Test
+  public void test_duplicates() throws Exception {
+    logger.debug("begin test_duplicates");
+    final File root = tmpFolder.newFolder("forms");
+    final Path oldPath = Files.createDirectories(root.toPath().resolve("StandardForms-10141"));
+    final Path newPath = Files.createDirectories(root.toPath().resolve("StandardForms-10142"));
+    Files.writeString(oldPath.resolve("Quick Message Viewer.html"), "old");
+    Files.writeString(newPath.resolve("Quick Message Viewer.html"), "new");
+    Files.writeString(newPath.resolve("Standard_Forms_Version.dat"), "1.0.142.0");
+
+    final FormIndex index = FormIndex.build(root.toPath());
+    assertTrue(index.isDuplicate("Quick Message Viewer.html"));
+    assertNull(index.find("Quick Message Viewer.html"));
+    assertNotNull(index.find("Standard_Forms_Version.dat"));
+    assertEquals(1, index.getDuplicateNames().size());
+    logger.debug("end test_duplicates");
+  }
+
+  @Test
+  public void test_missingRoot() throws Exception {
+    logger.debug("begin test_missingRoot");
+    final Path root = tmpFolder.getRoot().toPath().resolve("no-such-dir");
+    final FormIndex index = FormIndex.build(root);
+    assertEquals(0, index.size());
+    logger.debug("end test_missingRoot");
+  }
+}
@@ -0,0 +1,165 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.forms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class FormPackTest {
+  private static final Logger logger = LoggerFactory.getLogger(FormPackTest.class);
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void test_roundTrip() throws Exception {
+    logger.debug("begin test_roundTrip");
+    final Path root = tmpFolder.newFolder("StandardForms-10142").toPath();
+    Files.createDirectories(root.resolve("General Forms"));
+    final Path formPath = root.resolve("General Forms/ICS213_Initial_Viewer.html");
+    final String source = "<p title=\"{var To}\">{var to}</p>{var Subject}é<br>{var missing}";
+    Files.writeString(formPath, source);
+    Files.writeString(root.resolve("Quick Message Viewer.html"), "no slots");
+    Files.writeString(root.resolve("Standard_Forms_Version.dat"), "1.0.142.0");
+
+    final Path packPath = FormPack.getPackPath(root);
+    assertEquals("StandardForms-10142.pack", packPath.getFileName().toString());
+    assertEquals(2, FormPack.write(root, packPath));
+
+    final FormPack pack = FormPack.open(packPath, root);
+    assertEquals(2, pack.size());
+    assertTrue(pack.contains("General Forms/ICS213_Initial_Viewer.html"));
+    final BasicFileAttributes attributes = Files.readAttributes(formPath, BasicFileAttributes.class);
+    final long lastModifiedMillis = attributes.lastModifiedTime().toMillis();
+    final CompiledTemplate template = pack.get(formPath, lastModifiedMillis, attributes.size());
+    assertNotNull(template);
+
+    // renders the same as compiling the form
+    final Map<String, String> variableMap = Map.of("to", "\"K6ABC\"", "subject", "test");
+    final CompiledTemplate compiled = CompiledTemplate.compile(source);
+    assertEquals(compiled.getSlotCount(), template.getSlotCount());
+    assertEquals(compiled.render(variableMap, false), template.render(variableMap, false));
+    assertEquals(compiled.render(variableMap, true), template.render(variableMap, true));
+
+    // a changed form, or one that isn't in the pack, is compiled from the file
+    assertNull(pack.get(formPath, lastModifiedMillis + 1000, attributes.size()));
+    assertNull(pack.get(formPath, lastModifiedMillis, attributes.size() + 1));
+    assertNull(pack.get(root.resolve("Standard_Forms_Version.dat"), lastModifiedMillis, attributes.size()));
+
+    // and the cache uses the pack for the form as it was packed
+    final FormTemplateCache cache = new FormTemplateCache(1024 * 1024, pack);
+    assertEquals(4, cache.get(formPath).getSlotCount());
+    assertEquals(1, cache.getPackLoadCount());
+    Files.writeString(formPath, "{var to}");
+    Files.setLastModifiedTime(formPath, FileTime.fromMillis(lastModifiedMillis + 2000));
+    assertEquals(1, cache.get(formPath).getSlotCount());
+    assertEquals(1, cache.getPackLoadCount());
+    assertEquals(2, cache.getMissCount());
+    logger.debug("end test_roundTrip");
+  }
+
+  @Test
+  public void test_notAPack() throws Exception {
+    logger.debug("begin test_notAPack");
+    final Path root = tmpFolder.newFolder("StandardForms-10142").toPath();
+    assertNull(FormPack.openIfPresent(root, root));
+
+    Files.writeString(FormPack.getPackPath(root), "not a pack, but long enough to have a header");
+    assertNull(FormPack.openIfPresent(root, root));
+
+    // truncated
+    Files.writeString(root.resolve("Quick Message Viewer.html"), "<p>{var message}</p>");
+    final Path packPath = FormPack.getPackPath(root);
+    FormPack.write(root, packPath);
+    final byte[] bytes = Files.readAllBytes(packPath);
+    Files.write(packPath, Arrays.copyOf(bytes, bytes.length - 1));
+    assertNull(FormPack.openIfPresent(root, root));
+    logger.debug("end test_notAPack");
+  }
+
+  @Test
+  public void test_damaged() throws Exception {
+    logger.debug("begin test_damaged");
+    final Path root = tmpFolder.newFolder("StandardForms-10142").toPath();
+    Files.writeString(root.resolve("Quick Message Viewer.html"), "<p>{var message}</p>{var subject}");
+    final Path packPath = FormPack.getPackPath(root);
+    FormPack.write(root, packPath);
+    final byte[] bytes = Files.readAllBytes(packPath);
+    assertNotNull(FormPack.open(packPath, root));
+    final int stringCount = ByteBuffer.wrap(bytes).getInt(12);
+
+    // the first form: int pathId at 20, two longs, int slotCount at 40, then the ids from 44
+    assertDamaged(root, bytes, 20, stringCount);
+    assertDamaged(root, bytes, 20, -1);
+    assertDamaged(root, bytes, 40, 1_000_000);
+    assertDamaged(root, bytes, 40, -1);
+    assertDamaged(root, bytes, 44, stringCount);
+    assertDamaged(root, bytes, 44 + 4 * 4, Integer.MAX_VALUE);
+
+    // header counts
+    assertDamaged(root, bytes, 8, 2);
+    assertDamaged(root, bytes, 12, stringCount - 1);
+    assertDamaged(root, bytes, 16, -4);
+    assertDamaged(root, bytes, 16, ByteBuffer.wrap(bytes).getInt(16) - 4);
+    logger.debug("end test_damaged");
+  }
+
+  /**
+   * write bytes with the int at position replaced by value, and check the pack is rejected when opened
+   */
+  private void assertDamaged(Path root, byte[] bytes, int position, int value) throws Exception {
+    final byte[] damaged = bytes.clone();
+    ByteBuffer.wrap(damaged).putInt(position, value);
+    final Path packPath = FormPack.getPackPath(root);
+    Files.write(packPath, damaged);
+    try {
+      FormPack.open(packPath, root);
+      fail("expected damaged pack, position: " + position + ", value: " + value);
+    } catch (IOException e) {
+      logger.debug("rejected: " + e.getMessage());
+    }
+    assertNull(FormPack.openIfPresent(root, root));
+  }
+}
@@ -0,0 +1,89 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class FormTemplateCacheTest {
+  private static final Logger logger = LoggerFactory.getLogger(FormTemplateCacheTest.class);
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void test_hitAndInvalidate() throws Exception {
+    logger.debug("begin test_hitAndInvalidate");
+    final Path formPath = tmpFolder.newFile("Quick Message Viewer.html").toPath();
+    Files.writeString(formPath, "<p>{var greet}</p>");
+
+    final FormTemplateCache cache = new FormTemplateCache(1024 * 1024);
+    final CompiledTemplate first = cache.get(formPath);
+    final CompiledTemplate second = cache.get(formPath);
+    assertSame(first, second);
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+
+    Files.writeString(formPath, "<h1>{var greet}</h1>");
+    Files.setLastModifiedTime(formPath, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+    final CompiledTemplate third = cache.get(formPath);
+    assertNotSame(first, third);
+    assertEquals("<h1>hello</h1>", third.render(Map.of("greet", "hello"), true));
+    assertEquals(2, cache.getMissCount());
+    logger.debug("end test_hitAndInvalidate");
+  }
+
+  @Test
+  public void test_evictByBytes() throws Exception {
+    logger.debug("begin test_evictByBytes");
+    final String content = "x".repeat(1000);
+    final FormTemplateCache cache = new FormTemplateCache(5_000);
+    for (int i = 0; i < 5; ++i) {
+      final Path formPath = tmpFolder.newFile("form-" + i + ".html").toPath();
+      Files.writeString(formPath, content);
+      cache.get(formPath);
+    }
+
+    // each entry weighs about 2,000 bytes, so only two fit
+    assertEquals(2, cache.size());
+    assertEquals(3, cache.getEvictionCount());
+    logger.debug("end test_evictByBytes");
+  }
+}
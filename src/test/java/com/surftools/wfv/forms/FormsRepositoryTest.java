@@ -0,0 +1,78 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class FormsRepositoryTest {
+  private static final Logger logger = LoggerFactory.getLogger(FormsRepositoryTest.class);
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void test_snapshot() throws Exception {
+    logger.debug("begin test_snapshot");
+    final Path root = tmpFolder.newFolder("forms").toPath();
+    final Path formsPath = Files.createDirectories(root.resolve("StandardForms"));
+    Files.writeString(formsPath.resolve("Standard_Forms_Version.dat"), "1.0.142.0\n");
+    Files.writeString(formsPath.resolve("Quick Message Viewer.html"), "<p>{var message}</p>");
+
+    final FormsRepository first = FormsRepository.load(root, null, 1024 * 1024);
+    assertEquals("1.0.142.0", first.getVersion());
+    assertEquals("10142", first.getShortVersion());
+    final Path formPath = first.find("Quick Message Viewer.html");
+    assertNotNull(formPath);
+    assertNull(first.find(null));
+    assertNull(first.find("ICS213_Initial_Viewer.html"));
+    assertEquals(1, first.getTemplate(formPath).getSlotCount());
+
+    // a new form and an unreadable version: the old snapshot is unchanged, the new one keeps the old version
+    Files.writeString(formsPath.resolve("ICS213_Initial_Viewer.html"), "<p>{var to}</p>");
+    Files.delete(formsPath.resolve("Standard_Forms_Version.dat"));
+    final FormsRepository second = FormsRepository.load(root, first, 1024 * 1024);
+    assertNotSame(first.getTemplateCache(), second.getTemplateCache());
+    assertEquals("1.0.142.0", second.getVersion());
+    assertNotNull(second.find("ICS213_Initial_Viewer.html"));
+    assertNull(first.find("ICS213_Initial_Viewer.html"));
+    assertEquals(0, second.getTemplateCache().size());
+    logger.debug("end test_snapshot");
+  }
+}
@@ -0,0 +1,322 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.config.AbstractConfigurationManager;
+import com.surftools.wfv.config.ConfigurationKey;
+import com.surftools.wfv.tools.FileManifest;
+import com.sun.net.httpserver.HttpServer;
+
+public class FormsUpdaterTest {
+  private static final Logger logger = LoggerFactory.getLogger(FormsUpdaterTest.class);
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private HttpServer server;
+
+  static class TestConfigurationManager extends AbstractConfigurationManager {
+    TestConfigurationManager(Path formsPath, String downloadUrl, String source) {
+      map.put(ConfigurationKey.FORMS_PATH, formsPath.toString());
+      map.put(ConfigurationKey.FORMS_DOWNLOAD_URL, downloadUrl);
+      map.put(ConfigurationKey.FORMS_SOURCE, source);
+    }
+  }
+
+  /**
+   * serve zip as the forms download, or a 404 once it's set to null
+   *
+   * @return the download url
+   */
+  private String startServer(AtomicReference<byte[]> zip) throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/Standard_Forms.zip", exchange -> {
+      byte[] bytes = zip.get();
+      exchange.sendResponseHeaders((bytes == null) ? 404 : 200, (bytes == null) ? -1 : bytes.length);
+      try (OutputStream outputStream = exchange.getResponseBody()) {
+        if (bytes != null) {
+          outputStream.write(bytes);
+        }
+      }
+    });
+    server.start();
+    return "http://localhost:" + server.getAddress().getPort() + "/Standard_Forms.zip";
+  }
+
+  @After
+  public void tearDown() {
+    if (server != null) {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void test_update() throws Exception {
+    logger.debug("begin test_update");
+    final Path formsPath = tmpFolder.newFolder("forms").toPath();
+    final Path oldPath = Files.createDirectories(formsPath.resolve("StandardForms-10142"));
+    Files.writeString(oldPath.resolve("Standard_Forms_Version.dat"), "1.0.142.0");
+    Files.writeString(oldPath.resolve("Quick Message Viewer.html"), "old");
+    Files.createDirectories(oldPath.resolve("General Forms"));
+    Files.writeString(oldPath.resolve("General Forms/Winlink_Check_In_Viewer.html"), "unchanged");
+    Files.createSymbolicLink(formsPath.resolve("StandardForms"), oldPath.getFileName());
+
+    final AtomicReference<byte[]> zip = new AtomicReference<>(makeZip("1.0.143.0"));
+    final String url = startServer(zip);
+
+    final FormUtils formUtils = new FormUtils(new TestConfigurationManager(formsPath, url, FormUtils.SOURCE_DIRECTORY));
+    final FormsRepository before = formUtils.getRepository();
+    assertEquals("1.0.142.0", before.getVersion());
+
+    final FormsUpdater updater = new FormsUpdater(formUtils);
+    updater.run();
+    assertNull(updater.getLastError());
+    assertEquals("1.0.143.0", formUtils.getFormsVersion());
+    assertEquals("StandardForms-10143", Files.readSymbolicLink(formsPath.resolve("StandardForms")).toString());
+    assertFalse(Files.exists(formsPath.resolve("tmp-StandardForms")));
+
+    // no duplicates, though both versions are on disk, and the old snapshot still works
+    final Path newFormPath = formUtils.getRepository().find("Quick Message Viewer.html");
+    assertNotNull(newFormPath);
+    assertEquals("<p>{var message} 1.0.143.0</p>", Files.readString(newFormPath));
+    assertEquals("old", Files.readString(before.find("Quick Message Viewer.html")));
+
+    // the unchanged form is shared with the old version, and both versions have a manifest
+    assertTrue(Files.isSameFile(oldPath.resolve("General Forms/Winlink_Check_In_Viewer.html"),
+        formUtils.getRepository().find("Winlink_Check_In_Viewer.html")));
+    assertTrue(Files.exists(formsPath.resolve("StandardForms-10142.manifest")));
+    assertEquals(4, FileManifest.read(formsPath.resolve("StandardForms-10143.manifest")).size());
+
+    // the new version was packed, so its forms aren't compiled when first used
+    assertTrue(Files.exists(formsPath.resolve("StandardForms-10143.pack")));
+    final FormTemplateCache cache = formUtils.getTemplateCache();
+    assertNotNull(cache.getPack());
+    assertEquals(1, getSlotCount(formUtils.getRepository(), "Quick Message Viewer.html"));
+    assertEquals(1, cache.getPackLoadCount());
+
+    updater.run();
+    assertTrue(updater.getLastResult().contains("already"));
+    assertEquals(2, updater.getCheckCount());
+
+    zip.set(null);
+    updater.run();
+    assertNotNull(updater.getLastError());
+    assertEquals(1, updater.getFailureCount());
+    assertEquals("1.0.143.0", formUtils.getFormsVersion());
+    updater.stop();
+    logger.debug("end test_update");
+  }
+
+  @Test
+  public void test_updateZip() throws Exception {
+    logger.debug("begin test_updateZip");
+    final Path formsPath = tmpFolder.newFolder("forms").toPath();
+    Files.write(formsPath.resolve("StandardForms.zip"), makeZip("1.0.142.0"));
+    final String url = startServer(new AtomicReference<>(makeZip("1.0.143.0")));
+
+    final FormUtils formUtils = new FormUtils(new TestConfigurationManager(formsPath, url, FormUtils.SOURCE_ZIP));
+    final FormsRepository before = formUtils.getRepository();
+    assertTrue(before.isZip());
+    assertEquals("1.0.142.0", before.getVersion());
+    assertEquals(1, getSlotCount(before, "Quick Message Viewer.html"));
+
+    final FormsUpdater updater = new FormsUpdater(formUtils);
+    updater.run();
+    assertNull(updater.getLastError());
+    assertEquals("1.0.143.0", formUtils.getFormsVersion());
+    assertEquals("StandardForms-1.0.143.0.zip",
+        Files.readSymbolicLink(formsPath.resolve("StandardForms.zip")).toString());
+
+    // nothing was extracted
+    try (Stream<Path> stream = Files.list(formsPath)) {
+      assertTrue(stream.noneMatch(Files::isDirectory));
+    }
+    assertEquals("<p>{var message} 1.0.143.0</p>",
+        Files.readString(formUtils.getRepository().find("Quick Message Viewer.html")));
+    assertTrue(Files.exists(formsPath.resolve("StandardForms-1.0.143.0.zip.pack")));
+    assertEquals(1, getSlotCount(formUtils.getRepository(), "Quick Message Viewer.html"));
+    assertEquals(1, formUtils.getTemplateCache().getPackLoadCount());
+
+    // the old snapshot is still open, for requests that were using it
+    assertEquals("<p>{var message} 1.0.142.0</p>", Files.readString(before.find("Quick Message Viewer.html")));
+    updater.stop();
+    logger.debug("end test_updateZip");
+  }
+
+  @Test
+  public void test_rebuildIndexDuringUpdate() throws Exception {
+    logger.debug("begin test_rebuildIndexDuringUpdate");
+    final Path formsPath = tmpFolder.newFolder("forms").toPath();
+    final Path oldPath = Files.createDirectories(formsPath.resolve("StandardForms-10142"));
+    Files.writeString(oldPath.resolve("Standard_Forms_Version.dat"), "1.0.142.0");
+    Files.writeString(oldPath.resolve("Quick Message Viewer.html"), "old");
+    Files.createSymbolicLink(formsPath.resolve("StandardForms"), oldPath.getFileName());
+
+    // the download stops half way, until released
+    final byte[] bytes = makeZip("1.0.143.0");
+    final CountDownLatch sending = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/Standard_Forms.zip", exchange -> {
+      exchange.sendResponseHeaders(200, bytes.length);
+      try (OutputStream outputStream = exchange.getResponseBody()) {
+        outputStream.write(bytes, 0, bytes.length / 2);
+        outputStream.flush();
+        sending.countDown();
+        release.await(30, TimeUnit.SECONDS);
+        outputStream.write(bytes, bytes.length / 2, bytes.length - bytes.length / 2);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    server.start();
+    final String url = "http://localhost:" + server.getAddress().getPort() + "/Standard_Forms.zip";
+
+    final FormUtils formUtils = new FormUtils(new TestConfigurationManager(formsPath, url, FormUtils.SOURCE_DIRECTORY));
+    final FormsUpdater updater = new FormsUpdater(formUtils);
+    assertTrue(updater.trigger());
+    assertTrue(sending.await(10, TimeUnit.SECONDS));
+    assertTrue(updater.isRunning());
+
+    // a hand edit is picked up while the download is under way
+    Files.writeString(oldPath.resolve("Winlink_Check_In_Viewer.html"), "added by hand");
+    final Thread rebuild = new Thread(formUtils::rebuildIndex);
+    rebuild.start();
+    rebuild.join(5000);
+    assertFalse(rebuild.isAlive());
+    assertNotNull(formUtils.getRepository().find("Winlink_Check_In_Viewer.html"));
+    assertEquals("1.0.142.0", formUtils.getFormsVersion());
+
+    release.countDown();
+    for (int i = 0; i < 100 && (updater.getCheckCount() + updater.getFailureCount()) == 0; ++i) {
+      Thread.sleep(100);
+    }
+    assertNull(updater.getLastError());
+    assertEquals("1.0.143.0", formUtils.getFormsVersion());
+    updater.stop();
+    logger.debug("end test_rebuildIndexDuringUpdate");
+  }
+
+  @Test
+  public void test_watchActiveForms() throws Exception {
+    logger.debug("begin test_watchActiveForms");
+    final Path formsPath = tmpFolder.newFolder("forms").toPath();
+    final Path oldPath = Files.createDirectories(formsPath.resolve("StandardForms-10142"));
+    Files.writeString(oldPath.resolve("Standard_Forms_Version.dat"), "1.0.142.0");
+    Files.writeString(oldPath.resolve("Quick Message Viewer.html"), "old");
+    final Path newPath = Files.createDirectories(formsPath.resolve("StandardForms-10143"));
+    Files.writeString(newPath.resolve("Standard_Forms_Version.dat"), "1.0.143.0");
+    Files.createSymbolicLink(formsPath.resolve("StandardForms"), oldPath.getFileName());
+
+    final FormUtils formUtils = new FormUtils(new TestConfigurationManager(formsPath, "http://localhost:1/",
+        FormUtils.SOURCE_DIRECTORY));
+    final AtomicInteger publishCount = new AtomicInteger();
+    formUtils.addChangeListener(publishCount::incrementAndGet);
+    formUtils.startWatching();
+    try {
+      // a download, an extraction and a version that isn't in use
+      Files.createDirectories(formsPath.resolve("tmp-StandardForms/General Forms"));
+      Files.writeString(formsPath.resolve("tmp-StandardForms/General Forms/Tmp_Viewer.html"), "tmp");
+      Files.writeString(formsPath.resolve("StandardForms-10143.manifest"), "# crc32 size name\n");
+      Files.writeString(newPath.resolve("New_Viewer.html"), "new");
+      Thread.sleep(2_500);
+      assertEquals(0, publishCount.get());
+
+      Files.writeString(oldPath.resolve("Edited_Viewer.html"), "edited");
+      assertTrue(waitFor(() -> formUtils.getRepository().find("Edited_Viewer.html") != null));
+
+      // pointed at the other version by hand, whose forms are then watched instead
+      Files.delete(formsPath.resolve("StandardForms"));
+      Files.createSymbolicLink(formsPath.resolve("StandardForms"), newPath.getFileName());
+      assertTrue(waitFor(() -> "1.0.143.0".equals(formUtils.getFormsVersion())));
+      Files.writeString(newPath.resolve("Newer_Viewer.html"), "newer");
+      assertTrue(waitFor(() -> formUtils.getRepository().find("Newer_Viewer.html") != null));
+    } finally {
+      formUtils.stopWatching();
+    }
+    logger.debug("end test_watchActiveForms");
+  }
+
+  private static boolean waitFor(BooleanSupplier condition) throws Exception {
+    for (int i = 0; i < 100 && !condition.getAsBoolean(); ++i) {
+      Thread.sleep(100);
+    }
+    return condition.getAsBoolean();
+  }
+
+  private static int getSlotCount(FormsRepository repository, String displayFormName) throws Exception {
+    return repository.getTemplate(repository.find(displayFormName)).getSlotCount();
+  }
+
+  // big enough to be taken for the real thing
+  private static byte[] makeZip(String longVersion) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+      zip.putNextEntry(new ZipEntry("Standard_Forms_Version.dat"));
+      zip.write(longVersion.getBytes(StandardCharsets.UTF_8));
+      zip.putNextEntry(new ZipEntry("General Forms/Quick Message Viewer.html"));
+      zip.write(("<p>{var message} " + longVersion + "</p>").getBytes(StandardCharsets.UTF_8));
+      zip.putNextEntry(new ZipEntry("General Forms/Winlink_Check_In_Viewer.html"));
+      zip.write("unchanged".getBytes(StandardCharsets.UTF_8));
+      zip.putNextEntry(new ZipEntry("filler.bin"));
+      byte[] filler = new byte[1_200_000];
+      new Random(42).nextBytes(filler);
+      zip.write(filler);
+    }
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,89 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.forms;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SymbolTableTest {
+  private static final Logger logger = LoggerFactory.getLogger(SymbolTableTest.class);
+
+  @Test
+  public void test_intern() {
+    logger.debug("begin test_intern");
+    final SymbolTable table = new SymbolTable();
+    assertEquals(-1, table.find("message"));
+    final int id = table.intern("Message");
+    assertEquals(0, id);
+    assertEquals(id, table.intern("message"));
+    assertEquals(id, table.find("MESSAGE"));
+    assertEquals("message", table.getName(id));
+    assertEquals(1, table.intern("to_name"));
+    assertEquals(2, table.size());
+    logger.debug("end test_intern");
+  }
+
+  @Test
+  public void test_concurrent() throws Exception {
+    logger.debug("begin test_concurrent");
+    final SymbolTable table = new SymbolTable();
+    final int nameCount = 1000;
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    final List<Future<int[]>> futures = new ArrayList<>();
+    for (int t = 0; t < 4; ++t) {
+      futures.add(executor.submit(() -> {
+        int[] ids = new int[nameCount];
+        for (int i = 0; i < nameCount; ++i) {
+          ids[i] = table.intern("name" + i);
+        }
+        return ids;
+      }));
+    }
+
+    // every thread got the same id for each name, and the table grew past its initial size
+    final int[] first = futures.get(0).get();
+    for (Future<int[]> future : futures) {
+      final int[] ids = future.get();
+      for (int i = 0; i < nameCount; ++i) {
+        assertEquals(first[i], ids[i]);
+        assertEquals("name" + i, table.getName(ids[i]));
+      }
+    }
+    assertEquals(nameCount, table.size());
+    executor.shutdown();
+    logger.debug("end test_concurrent");
+  }
+}
@@ -32,6 +32,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -200,4 +201,71 @@ public class WinlinkExpressTemplateProcessorTest {
     logger.debug("end test_MiXeD_CaSe_VaLuE");
   }
 
+
+  @Test
+  public void test_compiledReuse() {
+    logger.debug("begin test_compiledReuse");
+    final WinlinkExpressTemplateProcessor processor = new WinlinkExpressTemplateProcessor();
+    final CompiledTemplate template = CompiledTemplate.compile("<p>{var greet}, {VAR Name}!</p>{var name}");
+    assertEquals(3, template.getSlotCount());
+
+    final Map<String, String> firstMap = new HashMap<>();
+    firstMap.put("greet", "hello");
+    firstMap.put("name", "world");
+    assertEquals("<p>hello, world!</p>world", processor.process(template, firstMap));
+
+    final Map<String, String> secondMap = new HashMap<>();
+    secondMap.put("greet", "\"goodbye\"");
+    assertEquals("<p>&quot;goodbye&quot;, !</p>", processor.process(template, secondMap));
+    logger.debug("end test_compiledReuse");
+  }
+
+  @Test
+  public void test_adjacentAndUnterminated() {
+    logger.debug("begin test_adjacentAndUnterminated");
+    final WinlinkExpressTemplateProcessor processor = new WinlinkExpressTemplateProcessor();
+    final Map<String, String> variableMap = new HashMap<>();
+    final String source = "{var a}{var b}{var c";
+    final String expected = "12{var c";
+    variableMap.put("a", "1");
+    variableMap.put("b", "2");
+    variableMap.put("c", "3");
+    final String actual = processor.process(source, variableMap);
+    assertEquals(expected, actual);
+    logger.debug("end test_adjacentAndUnterminated");
+  }
+
+  @Test
+  public void test_tokenInValue() {
+    logger.debug("begin test_tokenInValue");
+    final WinlinkExpressTemplateProcessor processor = new WinlinkExpressTemplateProcessor();
+    final Map<String, String> variableMap = new HashMap<>();
+    final String source = "<p>{var message}</p><p>{var msgto}</p>";
+    final String expected = "<p>see {var msgto}</p><p>N0CALL</p>";
+    variableMap.put("message", "see {var msgto}");
+    variableMap.put("msgto", "N0CALL");
+    final String actual = processor.process(source, variableMap);
+    assertEquals(expected, actual);
+    logger.debug("end test_tokenInValue");
+  }
+
+  @Test
+  public void test_renderToWriter() throws Exception {
+    logger.debug("begin test_renderToWriter");
+    final WinlinkExpressTemplateProcessor processor = new WinlinkExpressTemplateProcessor();
+    final CompiledTemplate template = CompiledTemplate.compile("<p>{var greet}, {VAR Name}!</p>{var missing}");
+    final Map<String, String> variableMap = new HashMap<>();
+    variableMap.put("greet", "\"hello\"");
+    variableMap.put("name", "world");
+
+    final StringWriter writer = new StringWriter();
+    processor.process(template, variableMap, writer);
+    assertEquals(processor.process(template, variableMap), writer.toString());
+
+    processor.setDoReplaceNotFoundWithEmptyString(false);
+    final StringWriter keepWriter = new StringWriter();
+    processor.process(template, variableMap, keepWriter);
+    assertEquals("<p>&quot;hello&quot;, world!</p>{var missing}", keepWriter.toString());
+    logger.debug("end test_renderToWriter");
+  }
 }
@@ -0,0 +1,95 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class WinlinkExpressViewerParserTest {
+  private static final Logger logger = LoggerFactory.getLogger(WinlinkExpressViewerParserTest.class);
+
+  private static final String VIEW_FILE_NAME = "src/test/resources/inbox/RMS_Express_Form_ICS213_Initial_Viewer.xml";
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private String makeEntityView(File secretFile) {
+    return "<?xml version=\"1.0\"?>\n" //
+        + "<!DOCTYPE RMS_Express_Form [<!ENTITY secret SYSTEM \"" + secretFile.toURI() + "\">]>\n" //
+        + "<RMS_Express_Form><form_parameters><display_form>x.html</display_form></form_parameters>" //
+        + "<variables><message>before &secret; after</message></variables></RMS_Express_Form>";
+  }
+
+  @Test
+  public void test_noExternalEntities() throws Exception {
+    logger.debug("begin test_noExternalEntities");
+    final File secretFile = tmpFolder.newFile("secret.txt");
+    Files.writeString(secretFile.toPath(), "SECRET");
+    final String xmlString = makeEntityView(secretFile);
+
+    // the DOM parser refuses any DOCTYPE
+    final WinlinkExpressViewerParser domParser = new WinlinkExpressViewerParser();
+    assertNotNull(domParser.parse(xmlString, false));
+    assertNull(domParser.getValue("message"));
+
+    // the stream parser skips the DOCTYPE, so the entity is undeclared
+    final WinlinkExpressViewerStreamParser streamParser = new WinlinkExpressViewerStreamParser();
+    assertNotNull(streamParser.parse(xmlString, false));
+    assertNull(streamParser.getValue("message"));
+    logger.debug("end test_noExternalEntities");
+  }
+
+  @Test
+  public void test_reuseAcrossParses() throws Exception {
+    logger.debug("begin test_reuseAcrossParses");
+    final String xmlString = Files.readString(Path.of(VIEW_FILE_NAME));
+    for (int i = 0; i < 3; ++i) {
+      final WinlinkExpressViewerParser parser = new WinlinkExpressViewerParser();
+      assertNull(parser.parse(xmlString, false));
+      assertEquals("ICS213_Initial_Viewer.html", parser.getValue("display_form"));
+    }
+
+    // a failed parse must not poison the next one
+    assertFalse(new WinlinkExpressViewerParser().parse("<oops", false) == null);
+    final WinlinkExpressViewerParser parser = new WinlinkExpressViewerParser();
+    assertNull(parser.parse(xmlString, false));
+    logger.debug("end test_reuseAcrossParses");
+  }
+}
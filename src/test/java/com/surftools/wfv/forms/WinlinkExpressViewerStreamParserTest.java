@@ -0,0 +1,180 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.forms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class WinlinkExpressViewerStreamParserTest {
+  private static final Logger logger = LoggerFactory.getLogger(WinlinkExpressViewerStreamParserTest.class);
+
+  private static final String[] VIEW_DIR_NAMES = { "src/test/resources/inbox", "conf/sample-view-files" };
+
+  private void assertSameAsDom(String xmlString) {
+    final WinlinkExpressViewerParser domParser = new WinlinkExpressViewerParser();
+    final WinlinkExpressViewerStreamParser streamParser = new WinlinkExpressViewerStreamParser();
+    assertNull(domParser.parse(xmlString, true));
+    assertNull(streamParser.parse(xmlString, true));
+    assertEquals(domParser.getVariableMap(), streamParser.getVariableMap());
+  }
+
+  @Test
+  public void test_viewFiles() throws Exception {
+    logger.debug("begin test_viewFiles");
+    int fileCount = 0;
+    for (String dirName : VIEW_DIR_NAMES) {
+      List<Path> paths;
+      try (Stream<Path> stream = Files.list(Path.of(dirName))) {
+        paths = stream.filter(p -> p.toString().endsWith(".xml")).collect(Collectors.toList());
+      }
+      for (Path path : paths) {
+        logger.debug("comparing: " + path);
+        assertSameAsDom(Files.readString(path));
+        ++fileCount;
+      }
+    }
+    assertTrue(fileCount > 0);
+    logger.debug("end test_viewFiles");
+  }
+
+  @Test
+  public void test_emptyAndMixedContent() {
+    logger.debug("begin test_emptyAndMixedContent");
+    final String xmlString = "<?xml version=\"1.0\"?>\n<RMS_Express_Form>\n" //
+        + "<form_parameters><display_form>Quick Message Viewer.html</display_form><Reply_Template/>" //
+        + "<comment><!-- note -->text</comment></form_parameters>\n" //
+        + "<variables><Empty></Empty><Blank> </Blank><amp>a &amp; b &lt;c&gt;</amp>" //
+        + "<cdata><![CDATA[<b>bold</b>]]> after</cdata><nested><child>x</child></nested>" //
+        + "<message>line 1\nline 2</message><reply_template>override</reply_template></variables>\n" //
+        + "</RMS_Express_Form>";
+    assertSameAsDom(xmlString);
+
+    final WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    assertNull(parser.parse(xmlString, false));
+    assertTrue(parser.getVariableMap().containsKey("comment"));
+    assertFalse(parser.getVariableMap().containsKey("empty"));
+    assertTrue(parser.getVariableMap().containsKey("nested"));
+    assertNull(parser.getValue("nested"));
+    assertEquals("override", parser.getValue("reply_template"));
+    assertEquals("a & b <c>", parser.getValue("amp"));
+    assertEquals("<b>bold</b>", parser.getValue("cdata"));
+    logger.debug("end test_emptyAndMixedContent");
+  }
+
+  @Test
+  public void test_values() {
+    logger.debug("begin test_values");
+    final String suffix = String.valueOf(System.nanoTime());
+    final String known = "known_" + suffix;
+    final String late = "late_" + suffix;
+    CompiledTemplate.compile("{var " + known + "}");
+
+    // variables win over form_parameters, even when they come first
+    final String xmlString = "<?xml version=\"1.0\"?>\n<RMS_Express_Form>\n" //
+        + "<variables><KNOWN_" + suffix + ">variable</KNOWN_" + suffix + "><" + late + ">variable</" + late + ">" //
+        + "</variables>\n<form_parameters><" + known + ">parameter</" + known + "><" + late + ">parameter</" + late
+        + "></form_parameters>\n</RMS_Express_Form>";
+    assertSameAsDom(xmlString);
+
+    final WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    assertNull(parser.parse(xmlString, false));
+    final int knownId = SymbolTable.getDefault().find(known);
+    assertEquals("variable", parser.getValues()[knownId]);
+    assertEquals(-1, SymbolTable.getDefault().find(late));
+    assertEquals("variable", parser.getValue(late));
+
+    // a form compiled after parsing, as when it's first used, still finds its values
+    final CompiledTemplate template = CompiledTemplate.compile("{var " + late + "}, {VAR " + known + "}{var missing}");
+    assertEquals("variable, variable", template.render(parser.getValues(), true));
+    assertEquals("variable", parser.getValues()[SymbolTable.getDefault().find(late)]);
+    assertEquals(Map.of(known, "variable", late, "variable"), parser.getVariableMap());
+    logger.debug("end test_values");
+  }
+
+  @Test
+  public void test_inputStreamEncoding() {
+    logger.debug("begin test_inputStreamEncoding");
+    final String xmlString = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><RMS_Express_Form>" //
+        + "<form_parameters><display_form>x.html</display_form></form_parameters>" //
+        + "<variables><name>José</name></variables></RMS_Express_Form>";
+    final WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    assertNull(parser.parse(new ByteArrayInputStream(xmlString.getBytes(StandardCharsets.ISO_8859_1)), false));
+    assertEquals("José", parser.getValue("name"));
+    logger.debug("end test_inputStreamEncoding");
+  }
+
+  @Test
+  public void test_notAViewFile() {
+    logger.debug("begin test_notAViewFile");
+    final WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    assertNotNull(parser.parse("<?xml version=\"1.0\"?><html><body/></html>", false));
+    assertNotNull(new WinlinkExpressViewerStreamParser().parse("not xml at all", false));
+    logger.debug("end test_notAViewFile");
+  }
+
+  @Test
+  public void test_entityExpansion() {
+    logger.debug("begin test_entityExpansion");
+    // a billion laughs: ten levels of ten references each
+    final StringBuilder sb = new StringBuilder("<?xml version=\"1.0\"?>\n<!DOCTYPE RMS_Express_Form [\n");
+    sb.append("<!ENTITY lol0 \"lol\">\n");
+    for (int i = 1; i < 10; ++i) {
+      sb.append("<!ENTITY lol" + i + " \"");
+      for (int j = 0; j < 10; ++j) {
+        sb.append("&lol" + (i - 1) + ";");
+      }
+      sb.append("\">\n");
+    }
+    sb.append("]>\n<RMS_Express_Form><form_parameters><display_form>x.html</display_form></form_parameters>");
+    sb.append("<variables><message>&lol9;</message></variables></RMS_Express_Form>");
+
+    final WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    final String errorMessage = parser.parse(sb.toString(), false);
+    assertNotNull(errorMessage);
+    assertTrue(errorMessage, errorMessage.contains("lol9"));
+    assertNull(parser.getValue("message"));
+    assertNotNull(new WinlinkExpressViewerParser().parse(sb.toString(), false));
+    logger.debug("end test_entityExpansion");
+  }
+}
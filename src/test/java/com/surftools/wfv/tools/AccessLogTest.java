@@ -0,0 +1,95 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class AccessLogTest {
+  private static final Logger logger = LoggerFactory.getLogger(AccessLogTest.class);
+
+  private AccessLog.Record makeRecord(String userAgent) {
+    return new AccessLog.Record(System.currentTimeMillis(), "10.0.0.1", "POST", "/uploadXHR/ICS213_Initial_Viewer.html",
+        200, 1234, 12_345_678L, null, userAgent);
+  }
+
+  @Test
+  public void test_dropWhenFull() throws Exception {
+    logger.debug("begin test_dropWhenFull");
+    final AccessLog accessLog = new AccessLog(3);
+    assertEquals(4, accessLog.getCapacity());
+    for (int i = 0; i < 4; ++i) {
+      assertTrue(accessLog.publish(makeRecord("agent")));
+    }
+    assertFalse(accessLog.publish(makeRecord("agent")));
+    assertEquals(1, accessLog.getDropCount());
+
+    // stopping drains everything already published
+    accessLog.start();
+    accessLog.stop();
+    assertEquals(4, accessLog.getWrittenCount());
+    assertTrue(accessLog.publish(makeRecord("agent")));
+    logger.debug("end test_dropWhenFull");
+  }
+
+  @Test
+  public void test_format() {
+    logger.debug("begin test_format");
+    final AccessLog accessLog = new AccessLog(4);
+    final StringBuilder sb = new StringBuilder();
+    accessLog.format(makeRecord("Mozilla \"quoted\""), sb);
+    final String line = sb.toString();
+    assertTrue(line, line.startsWith("10.0.0.1 - - ["));
+    assertTrue(line, line
+        .endsWith("] \"POST /uploadXHR/ICS213_Initial_Viewer.html\" 200 1234 \"-\" \"Mozilla \\\"quoted\\\"\" 12.345"));
+    logger.debug("end test_format");
+  }
+
+  @Test
+  public void test_formatForgedPath() {
+    logger.debug("begin test_formatForgedPath");
+    final AccessLog accessLog = new AccessLog(4);
+    final StringBuilder sb = new StringBuilder();
+    // a display_form can carry quotes and, as &#13;&#10;, a line break, to forge a second line
+    final String path = "/uploadXHR/x\" 200 1 \"-\" \"-\" 1.000\r\n"
+        + "10.6.6.6 - - [01/Jan/2026:00:00:00 +0000] \"GET /admin\t";
+    accessLog.format(new AccessLog.Record(System.currentTimeMillis(), "10.0.0.1", "POST", path, 200, 1234,
+        12_345_678L, null, "agent"), sb);
+    final String line = sb.toString();
+    assertFalse(line, line.contains("\n"));
+    assertFalse(line, line.contains("\r"));
+    assertTrue(line, line.endsWith("] \"POST /uploadXHR/x\\\" 200 1 \\\"-\\\" \\\"-\\\" 1.000\\r\\n10.6.6.6 - - "
+        + "[01/Jan/2026:00:00:00 +0000] \\\"GET /admin\\x09\" 200 1234 \"-\" \"agent\" 12.345"));
+    logger.debug("end test_formatForgedPath");
+  }
+}
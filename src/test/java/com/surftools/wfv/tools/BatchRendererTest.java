@@ -0,0 +1,196 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.config.IConfigurationManager;
+import com.surftools.wfv.config.PropertyFileConfigurationManager;
+import com.surftools.wfv.forms.FormUtils;
+import com.surftools.wfv.tools.BatchRenderer.Batch;
+
+public class BatchRendererTest {
+  private static final Logger logger = LoggerFactory.getLogger(BatchRendererTest.class);
+  private static final String DEFAULT_CONFIG_FILE_NAME = "conf/fv.conf";
+
+  private ExecutorService executor;
+  private FormRenderer formRenderer;
+  private String formName;
+
+  @Before
+  public void setUp() throws Exception {
+    final IConfigurationManager cm = new PropertyFileConfigurationManager(DEFAULT_CONFIG_FILE_NAME);
+    final FormUtils formUtils = new FormUtils(cm);
+    formRenderer = new FormRenderer(cm, formUtils);
+    formName = Warmup.getFormNames(formUtils).get(0);
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void test_order() throws Exception {
+    logger.debug("begin test_order");
+    final BatchRenderer batchRenderer = new BatchRenderer(formRenderer, executor, 2, 4096, 100);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final Batch batch = batchRenderer.start(bytes);
+    batch.add("a.xml", view(formName));
+    batch.add("b.xml", view("No Such Viewer.html"));
+    batch.add("c.xml", view(formName));
+    batch.add("d.xml", new ByteArrayInputStream("<not xml".getBytes(StandardCharsets.UTF_8)));
+    // too large, while the entries before it are still in flight
+    batch.add("e.xml", new ByteArrayInputStream(new byte[5000]));
+    batch.add("f.xml", view(formName));
+    batch.finish();
+    assertEquals(6, batch.getEntryCount());
+    assertEquals(3, batch.getErrorCount());
+
+    final List<String> names = new ArrayList<>();
+    final List<String> manifest = read(bytes.toByteArray(), names);
+    assertEquals(Arrays.asList("a.html", "c.html", "f.html", BatchRenderer.MANIFEST_NAME), names);
+    assertEquals(7, manifest.size());
+    assertEquals("input,status,output,message", manifest.get(0));
+    assertEquals("\"a.xml\",ok,\"a.html\",\"" + formName + "\"", manifest.get(1));
+    assertTrue(manifest.get(2), manifest.get(2).startsWith("\"b.xml\",error,\"\","));
+    assertTrue(manifest.get(3), manifest.get(3).startsWith("\"c.xml\",ok,\"c.html\","));
+    assertTrue(manifest.get(4), manifest.get(4).startsWith("\"d.xml\",error,\"\","));
+    assertEquals("\"e.xml\",error,\"\",\"input exceeds 4096 bytes\"", manifest.get(5));
+    assertTrue(manifest.get(6), manifest.get(6).startsWith("\"f.xml\",ok,\"f.html\","));
+    logger.debug("end test_order");
+  }
+
+  @Test
+  public void test_outputNames() throws Exception {
+    logger.debug("begin test_outputNames");
+    final BatchRenderer batchRenderer = new BatchRenderer(formRenderer, executor, 2, 4096, 100);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final Batch batch = batchRenderer.start(bytes);
+    batch.add("dir/view.xml", view(formName));
+    batch.add("dir/view.txt", view(formName));
+    batch.add("dir/view", view(formName));
+    batch.add("manifest.xml", view(formName));
+    batch.finish();
+
+    final List<String> names = new ArrayList<>();
+    read(bytes.toByteArray(), names);
+    assertEquals(Arrays.asList("dir/view.html", "dir/view-2.html", "dir/view-3.html", "manifest.html",
+        BatchRenderer.MANIFEST_NAME), names);
+    logger.debug("end test_outputNames");
+  }
+
+  @Test
+  public void test_traversalNames() throws Exception {
+    logger.debug("begin test_traversalNames");
+    final BatchRenderer batchRenderer = new BatchRenderer(formRenderer, executor, 2, 4096, 100);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final Batch batch = batchRenderer.start(bytes);
+    batch.add("../../x.xml", view(formName));
+    batch.add("/etc/x.xml", view(formName));
+    batch.add("C:\\..\\dir\\.\\y.xml", view(formName));
+    batch.add("..", view(formName));
+    batch.finish();
+
+    final List<String> names = new ArrayList<>();
+    final List<String> manifest = read(bytes.toByteArray(), names);
+    assertEquals(Arrays.asList("x.html", "etc/x.html", "dir/y.html", "entry.html", BatchRenderer.MANIFEST_NAME),
+        names);
+    assertEquals("\"../../x.xml\",ok,\"x.html\",\"" + formName + "\"", manifest.get(1));
+    logger.debug("end test_traversalNames");
+  }
+
+  @Test
+  public void test_maxEntries() throws Exception {
+    logger.debug("begin test_maxEntries");
+    final ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(zipBytes)) {
+      for (int i = 0; i < 5; ++i) {
+        zip.putNextEntry(new ZipEntry("view-" + i + ".xml"));
+        zip.write(Warmup.makeView(formName).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    final BatchRenderer batchRenderer = new BatchRenderer(formRenderer, executor, 2, 4096, 3);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final Batch batch = batchRenderer.start(bytes);
+    batch.addZip(new ByteArrayInputStream(zipBytes.toByteArray()));
+    batch.add("more.xml", view(formName));
+    batch.finish();
+    assertEquals(3, batch.getEntryCount());
+    assertEquals(1, batch.getErrorCount());
+
+    final List<String> names = new ArrayList<>();
+    final List<String> manifest = read(bytes.toByteArray(), names);
+    assertEquals(Arrays.asList("view-0.html", "view-1.html", "view-2.html", BatchRenderer.MANIFEST_NAME), names);
+    assertEquals(5, manifest.size());
+    assertEquals("\"view-3.xml\",error,\"\",\"batch limited to 3 entries, skipping this and any more\"",
+        manifest.get(4));
+    logger.debug("end test_maxEntries");
+  }
+
+  private ByteArrayInputStream view(String displayFormName) {
+    return new ByteArrayInputStream(Warmup.makeView(displayFormName).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return the lines of the manifest, having added the name of every entry to names
+   */
+  private List<String> read(byte[] bytes, List<String> names) throws Exception {
+    String manifest = null;
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+      ZipEntry entry;
+      while ((entry = zip.getNextEntry()) != null) {
+        names.add(entry.getName());
+        if (entry.getName().equals(BatchRenderer.MANIFEST_NAME)) {
+          manifest = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+      }
+    }
+    return Arrays.asList(manifest.split("\n"));
+  }
+}
@@ -0,0 +1,82 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class CapturingOutputStreamTest {
+  private static final Logger logger = LoggerFactory.getLogger(CapturingOutputStreamTest.class);
+
+  @Test
+  public void test_capture() throws Exception {
+    logger.debug("begin test_capture");
+    final byte[] bytes = "<html>rendered</html>".getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CapturingOutputStream capturing = new CapturingOutputStream(out, bytes.length);
+    capturing.write(bytes, 0, 6);
+    capturing.write(bytes[6]);
+    capturing.write(bytes, 7, bytes.length - 7);
+    assertFalse(capturing.isOverflow());
+    assertArrayEquals(bytes, capturing.toByteArray());
+    assertArrayEquals(bytes, out.toByteArray());
+    logger.debug("end test_capture");
+  }
+
+  @Test
+  public void test_overflow() throws Exception {
+    logger.debug("begin test_overflow");
+    final byte[] bytes = "<html>rendered</html>".getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CapturingOutputStream capturing = new CapturingOutputStream(out, bytes.length - 1);
+    capturing.write(bytes);
+    assertTrue(capturing.isOverflow());
+    assertNull(capturing.toByteArray());
+
+    // everything still passes through
+    capturing.write('!');
+    assertArrayEquals((new String(bytes, StandardCharsets.UTF_8) + "!").getBytes(StandardCharsets.UTF_8),
+        out.toByteArray());
+
+    capturing = new CapturingOutputStream(new ByteArrayOutputStream(), 2);
+    capturing.write('a');
+    capturing.write('b');
+    assertFalse(capturing.isOverflow());
+    capturing.write('c');
+    assertTrue(capturing.isOverflow());
+    logger.debug("end test_overflow");
+  }
+}
@@ -0,0 +1,139 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.tools.ServletStubs.StubResponse;
+
+public class CompressionTest {
+  private static final Logger logger = LoggerFactory.getLogger(CompressionTest.class);
+
+  @Test
+  public void test_acceptsGzip() {
+    logger.debug("begin test_acceptsGzip");
+    assertFalse(Compression.acceptsGzip(null));
+    assertFalse(Compression.acceptsGzip(""));
+    assertFalse(Compression.acceptsGzip("identity"));
+    assertFalse(Compression.acceptsGzip("br"));
+    assertTrue(Compression.acceptsGzip("gzip"));
+    assertTrue(Compression.acceptsGzip("gzip, deflate, br"));
+    assertTrue(Compression.acceptsGzip("deflate, GZIP;q=0.5"));
+    assertTrue(Compression.acceptsGzip("x-gzip"));
+    assertTrue(Compression.acceptsGzip("*"));
+    assertFalse(Compression.acceptsGzip("gzip;q=0"));
+    assertFalse(Compression.acceptsGzip("gzip; q=0.0, *"));
+    assertFalse(Compression.acceptsGzip("*;q=0"));
+    logger.debug("end test_acceptsGzip");
+  }
+
+  @Test
+  public void test_precompress() throws Exception {
+    logger.debug("begin test_precompress");
+    final byte[] bytes = "<tr><td>{var name}</td></tr>\n".repeat(200).getBytes(StandardCharsets.UTF_8);
+    assertNull(Compression.precompress(bytes, -1));
+    assertNull(Compression.precompress(bytes, bytes.length + 1));
+    assertNull(Compression.precompress("tiny".getBytes(StandardCharsets.UTF_8), 0));
+
+    final byte[] compressed = Compression.precompress(bytes, 1024);
+    assertNotNull(compressed);
+    assertTrue(compressed.length < bytes.length);
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      assertArrayEquals(bytes, gzip.readAllBytes());
+    }
+    logger.debug("end test_precompress");
+  }
+
+  @Test
+  public void test_compressingOutputStreamSmall() throws Exception {
+    logger.debug("begin test_compressingOutputStreamSmall");
+    final byte[] bytes = "<p>small</p>".getBytes(StandardCharsets.UTF_8);
+    final StubResponse stub = new StubResponse();
+    final CompressingOutputStream out = new CompressingOutputStream(stub.response, stub.response.getOutputStream(),
+        1024);
+    out.write(bytes, 0, 3);
+    out.write(bytes[3]);
+    out.write(bytes, 4, bytes.length - 4);
+    out.flush();
+
+    // held back until finish(), in case there's more
+    assertEquals(0, stub.body.size());
+    out.finish();
+    assertFalse(out.isCompressed());
+    assertNull(stub.headers.get("Content-Encoding"));
+    assertArrayEquals(bytes, stub.body.toByteArray());
+
+    // nothing at all
+    final StubResponse emptyStub = new StubResponse();
+    final CompressingOutputStream emptyOut = new CompressingOutputStream(emptyStub.response,
+        emptyStub.response.getOutputStream(), 1024);
+    emptyOut.finish();
+    assertFalse(emptyOut.isCompressed());
+    assertNull(emptyStub.headers.get("Content-Encoding"));
+    assertEquals(0, emptyStub.body.size());
+    logger.debug("end test_compressingOutputStreamSmall");
+  }
+
+  @Test
+  public void test_compressingOutputStreamLarge() throws Exception {
+    logger.debug("begin test_compressingOutputStreamLarge");
+    final byte[] bytes = "<tr><td>{var name}</td></tr>\n".repeat(200).getBytes(StandardCharsets.UTF_8);
+    final StubResponse stub = new StubResponse();
+    final CompressingOutputStream out = new CompressingOutputStream(stub.response, stub.response.getOutputStream(),
+        1024);
+    out.write(bytes, 0, 1023);
+    assertFalse(out.isCompressed());
+    assertNull(stub.headers.get("Content-Encoding"));
+
+    // the header is set once minBytes have been written, and not before
+    out.write(bytes[1023]);
+    assertTrue(out.isCompressed());
+    assertEquals(Compression.GZIP, stub.headers.get("Content-Encoding"));
+    out.write(bytes, 1024, bytes.length - 1024);
+    out.finish();
+
+    assertTrue(stub.body.size() < bytes.length);
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(stub.body.toByteArray()))) {
+      assertArrayEquals(bytes, gzip.readAllBytes());
+    }
+    logger.debug("end test_compressingOutputStreamLarge");
+  }
+}
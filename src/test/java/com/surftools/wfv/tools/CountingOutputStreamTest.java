@@ -0,0 +1,64 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class CountingOutputStreamTest {
+  private static final Logger logger = LoggerFactory.getLogger(CountingOutputStreamTest.class);
+
+  @Test
+  public void test_count() throws Exception {
+    logger.debug("begin test_count");
+    final byte[] bytes = "<html>rendered</html>".getBytes(StandardCharsets.UTF_8);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final CountingOutputStream counting = new CountingOutputStream(out);
+    assertEquals(0, counting.getCount());
+
+    counting.write(bytes[0]);
+    counting.write(bytes, 1, 5);
+    counting.write(bytes, 6, 0);
+    counting.write(bytes, 6, bytes.length - 6);
+    counting.flush();
+    assertEquals(bytes.length, counting.getCount());
+    assertArrayEquals(bytes, out.toByteArray());
+
+    // FilterOutputStream.write(byte[]) comes through write(byte[], int, int)
+    counting.write(bytes);
+    assertEquals(2L * bytes.length, counting.getCount());
+    assertEquals(2 * bytes.length, out.size());
+    logger.debug("end test_count");
+  }
+}
@@ -0,0 +1,127 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.config.IConfigurationManager;
+import com.surftools.wfv.config.PropertyFileConfigurationManager;
+import com.surftools.wfv.forms.FormUtils;
+
+public class DirectoryRendererTest {
+  private static final Logger logger = LoggerFactory.getLogger(DirectoryRendererTest.class);
+  private static final String DEFAULT_CONFIG_FILE_NAME = "conf/fv.conf";
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private FormRenderer formRenderer;
+  private String formName;
+
+  @Before
+  public void setUp() throws Exception {
+    final IConfigurationManager cm = new PropertyFileConfigurationManager(DEFAULT_CONFIG_FILE_NAME);
+    final FormUtils formUtils = new FormUtils(cm);
+    formRenderer = new FormRenderer(cm, formUtils);
+    formName = Warmup.getFormNames(formUtils).get(0);
+  }
+
+  @Test
+  public void test_render() throws Exception {
+    logger.debug("begin test_render");
+    final Path inputDir = tmpFolder.newFolder("in").toPath();
+    final Path outputDir = tmpFolder.getRoot().toPath().resolve("out");
+    Files.createDirectories(inputDir.resolve("sub"));
+    Files.writeString(inputDir.resolve("a.xml"), Warmup.makeView(formName));
+    Files.writeString(inputDir.resolve("sub/b.XML"), Warmup.makeView(formName));
+    Files.writeString(inputDir.resolve("notes.txt"), "not a view file");
+
+    DirectoryRenderer directoryRenderer = new DirectoryRenderer(formRenderer, 2);
+    directoryRenderer.render(inputDir, outputDir);
+    assertEquals(2, directoryRenderer.getRenderedCount());
+    assertEquals(0, directoryRenderer.getSkippedCount());
+    assertEquals(0, directoryRenderer.getFailedCount());
+    assertEquals(0, directoryRenderer.getExitCode());
+    assertTrue(Files.readString(outputDir.resolve("a.html")).length() > 0);
+    assertTrue(Files.exists(outputDir.resolve("sub/b.html")));
+    assertFalse(Files.exists(outputDir.resolve("notes.html")));
+
+    // outputs newer than their inputs are left alone; an input changed since is rendered again
+    final FileTime outputTime = Files.getLastModifiedTime(outputDir.resolve("a.html"));
+    Files.setLastModifiedTime(inputDir.resolve("a.xml"), FileTime.fromMillis(outputTime.toMillis() - 10_000));
+    Files.setLastModifiedTime(inputDir.resolve("sub/b.XML"), FileTime.fromMillis(outputTime.toMillis() + 10_000));
+    directoryRenderer = new DirectoryRenderer(formRenderer, 2);
+    directoryRenderer.render(inputDir, outputDir);
+    assertEquals(1, directoryRenderer.getRenderedCount());
+    assertEquals(1, directoryRenderer.getSkippedCount());
+    assertEquals(0, directoryRenderer.getExitCode());
+    logger.debug("end test_render");
+  }
+
+  @Test
+  public void test_failures() throws Exception {
+    logger.debug("begin test_failures");
+    final Path inputDir = tmpFolder.newFolder("in").toPath();
+    final Path outputDir = tmpFolder.getRoot().toPath().resolve("out");
+    Files.writeString(inputDir.resolve("good.xml"), Warmup.makeView(formName));
+    Files.writeString(inputDir.resolve("unknown.xml"), Warmup.makeView("No Such Viewer.html"));
+    Files.writeString(inputDir.resolve("broken.xml"), "<not xml");
+
+    final DirectoryRenderer directoryRenderer = new DirectoryRenderer(formRenderer, 2);
+    directoryRenderer.render(inputDir, outputDir);
+    assertEquals(1, directoryRenderer.getRenderedCount());
+    assertEquals(2, directoryRenderer.getFailedCount());
+    assertEquals(DirectoryRenderer.EXIT_CODE_FAILURES, directoryRenderer.getExitCode());
+    assertEquals(2, directoryRenderer.getExitCode());
+    assertTrue(Files.exists(outputDir.resolve("good.html")));
+    assertFalse(Files.exists(outputDir.resolve("unknown.html")));
+    assertFalse(Files.exists(outputDir.resolve("broken.html")));
+    logger.debug("end test_failures");
+  }
+
+  @Test
+  public void test_makeOutputPath() {
+    logger.debug("begin test_makeOutputPath");
+    final Path inputDir = Path.of("/in");
+    assertEquals(Path.of("/out/sub/view.html"),
+        DirectoryRenderer.makeOutputPath(inputDir, Path.of("/out"), Path.of("/in/sub/view.xml")));
+    logger.debug("end test_makeOutputPath");
+  }
+}
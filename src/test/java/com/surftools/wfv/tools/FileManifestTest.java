@@ -0,0 +1,95 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class FileManifestTest {
+  private static final Logger logger = LoggerFactory.getLogger(FileManifestTest.class);
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void test_manifest() throws Exception {
+    logger.debug("begin test_manifest");
+    final Path root = tmpFolder.getRoot().toPath();
+    final Path zipPath = root.resolve("forms.zip");
+    try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+      zip.putNextEntry(new ZipEntry("General Forms/"));
+      zip.putNextEntry(new ZipEntry("General Forms/Quick Message Viewer.html"));
+      zip.write("<html>{var message}</html>".getBytes(StandardCharsets.UTF_8));
+      zip.putNextEntry(new ZipEntry("Standard_Forms_Version.dat"));
+      zip.write("1.0.142.0".getBytes(StandardCharsets.UTF_8));
+    }
+
+    // the zip's manifest, the manifest of what was extracted, and the one read back are all the same
+    final Path dirPath = root.resolve("StandardForms-10142");
+    final FileManifest zipManifest;
+    try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+      zipManifest = FileManifest.of(zipFile);
+      new ZipExtractor(2).extract(zipFile, dirPath);
+    }
+    assertEquals(2, zipManifest.size());
+    final FileManifest scanned = FileManifest.scan(dirPath);
+    assertEquals(zipManifest, scanned);
+
+    final Path manifestPath = root.resolve("StandardForms-10142.manifest");
+    scanned.write(manifestPath);
+    final FileManifest read = FileManifest.read(manifestPath);
+    assertEquals(zipManifest, read);
+    assertEquals(9, read.get("Standard_Forms_Version.dat").size);
+
+    // change one file, add one, remove one
+    Files.writeString(dirPath.resolve("Standard_Forms_Version.dat"), "1.0.143.0");
+    Files.writeString(dirPath.resolve("General Forms/New_Viewer.html"), "new");
+    Files.delete(dirPath.resolve("General Forms/Quick Message Viewer.html"));
+    final List<String> changes = read.diff(FileManifest.scan(dirPath));
+    assertEquals(List.of("+General Forms/New_Viewer.html", "*Standard_Forms_Version.dat",
+        "-General Forms/Quick Message Viewer.html"), changes);
+    assertFalse(read.equals(FileManifest.scan(dirPath)));
+    assertTrue(read.diff(read).isEmpty());
+    logger.debug("end test_manifest");
+  }
+}
@@ -0,0 +1,131 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class LimitedInputStreamTest {
+  private static final Logger logger = LoggerFactory.getLogger(LimitedInputStreamTest.class);
+
+  private static byte[] makeBytes(int n) {
+    byte[] bytes = new byte[n];
+    for (int i = 0; i < n; ++i) {
+      bytes[i] = (byte) i;
+    }
+    return bytes;
+  }
+
+  @Test
+  public void test_withinLimit() throws Exception {
+    logger.debug("begin test_withinLimit");
+    final byte[] bytes = makeBytes(100);
+
+    // exactly the limit is fine
+    LimitedInputStream in = new LimitedInputStream(new ByteArrayInputStream(bytes), 100);
+    assertArrayEquals(bytes, in.readAllBytes());
+    assertEquals(100, in.getCount());
+    assertFalse(in.isLimitExceeded());
+    assertEquals(-1, in.read());
+    assertEquals(100, in.getCount());
+
+    // single bytes, skips and arrays all count
+    in = new LimitedInputStream(new ByteArrayInputStream(bytes), 100);
+    assertEquals(0, in.read());
+    assertEquals(1, in.getCount());
+    assertEquals(10, in.skip(10));
+    assertEquals(11, in.getCount());
+    final byte[] buffer = new byte[20];
+    assertEquals(20, in.read(buffer, 0, 20));
+    assertEquals(11, buffer[0]);
+    assertEquals(31, in.getCount());
+    assertFalse(in.markSupported());
+    logger.debug("end test_withinLimit");
+  }
+
+  @Test
+  public void test_limitExceeded() throws Exception {
+    logger.debug("begin test_limitExceeded");
+    LimitedInputStream in = new LimitedInputStream(new ByteArrayInputStream(makeBytes(101)), 100);
+    try {
+      in.readAllBytes();
+      fail("expected the limit to be exceeded");
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("100"));
+    }
+    assertTrue(in.isLimitExceeded());
+    assertEquals(101, in.getCount());
+
+    // one byte at a time
+    in = new LimitedInputStream(new ByteArrayInputStream(makeBytes(3)), 2);
+    assertEquals(0, in.read());
+    assertEquals(1, in.read());
+    assertFalse(in.isLimitExceeded());
+    try {
+      in.read();
+      fail("expected the limit to be exceeded");
+    } catch (IOException e) {
+      assertTrue(in.isLimitExceeded());
+    }
+
+    // skipping past the limit
+    in = new LimitedInputStream(new ByteArrayInputStream(makeBytes(100)), 50);
+    try {
+      in.skip(60);
+      fail("expected the limit to be exceeded");
+    } catch (IOException e) {
+      assertTrue(in.isLimitExceeded());
+    }
+
+    // a failure of the underlying stream isn't the limit
+    in = new LimitedInputStream(new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("broken");
+      }
+    }, 100);
+    try {
+      in.read();
+      fail("expected an exception");
+    } catch (IOException e) {
+      assertEquals("broken", e.getMessage());
+      assertFalse(in.isLimitExceeded());
+    }
+    logger.debug("end test_limitExceeded");
+  }
+}
@@ -0,0 +1,93 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.tools.Metrics.Stage;
+
+public class MetricsTest {
+  private static final Logger logger = LoggerFactory.getLogger(MetricsTest.class);
+
+  @Test
+  public void test_histogram() {
+    logger.debug("begin test_histogram");
+    final Histogram histogram = new Histogram(new long[] { 10, 100 }, 2d);
+    histogram.record(1);
+    histogram.record(10);
+    histogram.record(11);
+    histogram.record(1_000);
+    assertEquals(4, histogram.getCount());
+
+    final StringBuilder sb = new StringBuilder();
+    histogram.write(sb, "x", "a=\"b\"");
+    final String expected = "" //
+        + "x_bucket{a=\"b\",le=\"5\"} 2\n" //
+        + "x_bucket{a=\"b\",le=\"50\"} 3\n" //
+        + "x_bucket{a=\"b\",le=\"+Inf\"} 4\n" //
+        + "x_sum{a=\"b\"} 511\n" //
+        + "x_count{a=\"b\"} 4\n";
+    assertEquals(expected, sb.toString());
+    logger.debug("end test_histogram");
+  }
+
+  @Test
+  public void test_prometheus() {
+    logger.debug("begin test_prometheus");
+    final Metrics metrics = new Metrics();
+    metrics.recordStage(Stage.PARSE, 75_000L);
+    metrics.recordRequest("/uploadXHR", 200, 1_000_000L);
+    metrics.recordDisplayForm("Quick \"Message\" Viewer.html");
+    metrics.addCounter("fv_test_total", "test", () -> 42);
+
+    final String text = metrics.toPrometheus();
+    assertTrue(text.contains("fv_stage_duration_seconds_bucket{stage=\"parse\",le=\"0.0001\"} 1\n"));
+    assertTrue(text.contains("fv_stage_duration_seconds_sum{stage=\"parse\"} 0.000075\n"));
+    assertTrue(text.contains("fv_responses_total{code=\"200\"} 1\n"));
+    assertTrue(text.contains("fv_display_form_total{display_form=\"Quick \\\"Message\\\" Viewer.html\"} 1\n"));
+    assertTrue(text.contains("# TYPE fv_test_total counter\nfv_test_total 42\n"));
+    assertEquals(1, metrics.getStageCount(Stage.PARSE));
+    logger.debug("end test_prometheus");
+  }
+
+  @Test
+  public void test_displayFormCardinality() {
+    logger.debug("begin test_displayFormCardinality");
+    final Metrics metrics = new Metrics();
+    for (int i = 0; i < Metrics.MAX_FORM_NAMES + 10; ++i) {
+      metrics.recordDisplayForm("form-" + i + ".html");
+    }
+    assertTrue(metrics.toPrometheus().contains("fv_display_form_total{display_form=\"other\"} 10\n"));
+    logger.debug("end test_displayFormCardinality");
+  }
+}
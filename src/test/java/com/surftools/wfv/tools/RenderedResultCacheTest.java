@@ -0,0 +1,78 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class RenderedResultCacheTest {
+  private static final Logger logger = LoggerFactory.getLogger(RenderedResultCacheTest.class);
+
+  @Test
+  public void test_keyAndHitRatio() throws Exception {
+    logger.debug("begin test_keyAndHitRatio");
+    final byte[] upload = "<RMS_Express_Form/>".getBytes(StandardCharsets.UTF_8);
+    final String key = RenderedResultCache.makeKey(upload, "1.0.142.0");
+    assertEquals(key, RenderedResultCache.makeKey(upload.clone(), "1.0.142.0"));
+    assertNotEquals(key, RenderedResultCache.makeKey(upload, "1.0.143.0"));
+
+    final RenderedResultCache cache = new RenderedResultCache(1024 * 1024, 300);
+    assertNull(cache.get(key));
+    final byte[] html = "<p>hello</p>".getBytes(StandardCharsets.UTF_8);
+    cache.put(key, "Quick Message Viewer.html", html, null);
+    final RenderedResultCache.Entry entry = cache.get(key);
+    assertNotNull(entry);
+    assertArrayEquals(html, entry.bytes);
+    assertEquals("Quick Message Viewer.html", entry.displayFormName);
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(0.5d, cache.getHitRatio(), 0.0001d);
+    logger.debug("end test_keyAndHitRatio");
+  }
+
+  @Test
+  public void test_expiry() throws Exception {
+    logger.debug("begin test_expiry");
+    final RenderedResultCache cache = new RenderedResultCache(1024 * 1024, 0);
+    cache.put("key", "form.html", new byte[10], null);
+    Thread.sleep(1);
+    assertNull(cache.get("key"));
+    assertEquals(1, cache.getExpirationCount());
+    assertEquals(0, cache.size());
+    logger.debug("end test_expiry");
+  }
+}
@@ -0,0 +1,82 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ServerFactoryTest {
+  private static final Logger logger = LoggerFactory.getLogger(ServerFactoryTest.class);
+
+  @Test
+  public void test_pool() throws Exception {
+    logger.debug("begin test_pool");
+    ServerFactory serverFactory = new ServerFactory(ServerFactory.MODE_POOL, 4, 12, 5000, 64);
+    assertFalse(serverFactory.isVirtual());
+    QueuedThreadPool pool = (QueuedThreadPool) serverFactory.getThreadPool();
+    assertEquals(4, pool.getMinThreads());
+    assertEquals(12, pool.getMaxThreads());
+    assertEquals(5000, pool.getIdleTimeout());
+
+    // Spark ignores its own pool settings, and adds the connector after the server is created
+    Server server = serverFactory.create(200, 8, 60000);
+    ServerConnector connector = new ServerConnector(server);
+    connector.setPort(0);
+    server.addConnector(connector);
+    server.start();
+    try {
+      assertEquals(pool, server.getThreadPool());
+      assertEquals(64, connector.getAcceptQueueSize());
+      assertEquals(0, serverFactory.getQueueSize());
+    } finally {
+      server.stop();
+    }
+    logger.debug("end test_pool");
+  }
+
+  @Test
+  public void test_virtual() throws Exception {
+    logger.debug("begin test_virtual");
+    // virtual threads if the JVM has them, otherwise the pool
+    ServerFactory serverFactory = new ServerFactory(ServerFactory.MODE_VIRTUAL, 4, 12, 5000, 0);
+    assertEquals(Runtime.version().feature() >= 21, serverFactory.isVirtual());
+    assertTrue(serverFactory.describe().startsWith(serverFactory.isVirtual() ? "virtual" : "pool"));
+
+    serverFactory = new ServerFactory("bogus", 4, 12, 5000, 0);
+    assertFalse(serverFactory.isVirtual());
+    logger.debug("end test_virtual");
+  }
+}
@@ -0,0 +1,158 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * just enough of HttpServletRequest and HttpServletResponse to exercise code that writes responses
+ *
+ * @author bobt
+ *
+ */
+class ServletStubs {
+
+  /**
+   * @param method
+   *          such as GET
+   * @param headers
+   *          header name to value
+   * @return a request with only a method and headers
+   */
+  static HttpServletRequest request(String method, Map<String, String> headers) {
+    return (HttpServletRequest) Proxy
+        .newProxyInstance(ServletStubs.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+            (proxy, m, args) -> {
+              switch (m.getName()) {
+              case "getMethod":
+                return method;
+              case "getHeader":
+                return headers.get(args[0]);
+              case "getDateHeader":
+                String value = headers.get(args[0]);
+                if (value == null) {
+                  return -1L;
+                }
+                try {
+                  return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                } catch (Exception e) {
+                  throw new IllegalArgumentException(value);
+                }
+              default:
+                return defaultValue(m.getReturnType());
+              }
+            });
+  }
+
+  /**
+   * a response that records its status, headers and body
+   */
+  static class StubResponse {
+    int status = 200;
+    String contentType;
+    long contentLength = -1;
+    boolean isCommitted;
+    final Map<String, String> headers = new LinkedHashMap<>();
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+      @Override
+      public void write(int b) {
+        body.write(b);
+      }
+
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setWriteListener(WriteListener writeListener) {
+        ;
+      }
+    };
+
+    final HttpServletResponse response = (HttpServletResponse) Proxy
+        .newProxyInstance(ServletStubs.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+            (proxy, m, args) -> {
+              switch (m.getName()) {
+              case "setStatus":
+                status = (Integer) args[0];
+                return null;
+              case "getStatus":
+                return status;
+              case "setContentType":
+                contentType = (String) args[0];
+                return null;
+              case "setContentLength":
+                contentLength = (Integer) args[0];
+                return null;
+              case "setContentLengthLong":
+                contentLength = (Long) args[0];
+                return null;
+              case "setHeader":
+              case "addHeader":
+                headers.put((String) args[0], (String) args[1]);
+                return null;
+              case "getHeader":
+                return headers.get(args[0]);
+              case "containsHeader":
+                return headers.containsKey(args[0]);
+              case "getOutputStream":
+                return outputStream;
+              case "flushBuffer":
+                isCommitted = true;
+                return null;
+              case "isCommitted":
+                return isCommitted;
+              default:
+                return defaultValue(m.getReturnType());
+              }
+            });
+  }
+
+  private static Object defaultValue(Class<?> type) {
+    if (type == boolean.class) {
+      return false;
+    } else if (type == int.class) {
+      return 0;
+    } else if (type == long.class) {
+      return 0L;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,59 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class StartupTimerTest {
+  private static final Logger logger = LoggerFactory.getLogger(StartupTimerTest.class);
+
+  @Test
+  public void test_report() throws Exception {
+    logger.debug("begin test_report");
+    final StartupTimer timer = new StartupTimer(100);
+    Thread.sleep(20);
+    assertTrue(timer.mark("config") >= 20);
+    timer.mark("forms");
+    timer.mark("config");
+
+    // phases are reported in the order they first ran; a repeated phase adds to the first
+    final Map<String, Long> phaseMillis = timer.getPhaseMillis();
+    assertEquals(List.of("jvm", "config", "forms"), List.copyOf(phaseMillis.keySet()));
+    assertEquals(100L, (long) phaseMillis.get("jvm"));
+    assertTrue(timer.getTotalMillis() >= 120);
+    assertTrue(timer.report().startsWith("startup: " + timer.getTotalMillis() + " msec (jvm: 100, config: "));
+    logger.debug("end test_report");
+  }
+}
@@ -0,0 +1,208 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.tools.ServletStubs.StubResponse;
+import com.surftools.wfv.tools.StaticPageCache.Page;
+import com.surftools.wfv.tools.StaticPageCache.PageContent;
+
+import spark.RequestResponseFactory;
+
+public class StaticPageCacheTest {
+  private static final Logger logger = LoggerFactory.getLogger(StaticPageCacheTest.class);
+
+  private static final String HTML = "<html><body>" + "<p>Winlink Form Viewer</p>\n".repeat(100) + "</body></html>";
+  private static final long MODIFIED_MILLIS = 1_700_000_000_000L;
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private Page makePage(String html, String fallbackHtml) throws Exception {
+    final Path path = tmpFolder.getRoot().toPath().resolve("page.html");
+    if (html != null) {
+      Files.writeString(path, html);
+      Files.setLastModifiedTime(path, FileTime.fromMillis(MODIFIED_MILLIS + 123));
+    }
+    return new StaticPageCache(1024).add("page", path, Files::readAllBytes, fallbackHtml, "text/html");
+  }
+
+  private StubResponse serve(Page page, String method, int status, Map<String, String> headers) throws Exception {
+    final StubResponse stub = new StubResponse();
+    page.serve(RequestResponseFactory.create(ServletStubs.request(method, headers)),
+        RequestResponseFactory.create(stub.response), status);
+    return stub;
+  }
+
+  private static String httpDate(long millis) {
+    return DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC).format(Instant.ofEpochMilli(millis));
+  }
+
+  @Test
+  public void test_serve() throws Exception {
+    logger.debug("begin test_serve");
+    final Page page = makePage(HTML, null);
+    final PageContent content = page.getContent();
+    assertEquals(MODIFIED_MILLIS, content.lastModifiedMillis);
+
+    StubResponse stub = serve(page, "GET", 200, Map.of());
+    assertEquals(200, stub.status);
+    assertEquals("text/html", stub.contentType);
+    assertEquals(content.etag, stub.headers.get("ETag"));
+    assertEquals(httpDate(MODIFIED_MILLIS), stub.headers.get("Last-Modified"));
+    assertEquals("Accept-Encoding", stub.headers.get("Vary"));
+    assertNull(stub.headers.get("Content-Encoding"));
+    assertArrayEquals(HTML.getBytes(StandardCharsets.UTF_8), stub.body.toByteArray());
+    assertEquals(stub.body.size(), stub.contentLength);
+    assertTrue(stub.isCommitted);
+
+    // the gzip'ed variant has its own ETag
+    stub = serve(page, "GET", 200, Map.of("Accept-Encoding", "gzip, deflate"));
+    assertEquals("gzip", stub.headers.get("Content-Encoding"));
+    assertEquals(content.gzipETag, stub.headers.get("ETag"));
+    assertTrue(content.gzipETag.endsWith("-gz\""));
+    assertNotEquals(content.etag, content.gzipETag);
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(stub.body.toByteArray()))) {
+      assertArrayEquals(HTML.getBytes(StandardCharsets.UTF_8), gzip.readAllBytes());
+    }
+
+    // too small to be worth compressing
+    final Page smallPage = makePage("<p>small</p>", null);
+    assertNull(smallPage.getContent().gzipBytes);
+    stub = serve(smallPage, "GET", 200, Map.of("Accept-Encoding", "gzip"));
+    assertNull(stub.headers.get("Content-Encoding"));
+    assertNull(stub.headers.get("Vary"));
+    assertEquals("<p>small</p>", stub.body.toString(StandardCharsets.UTF_8));
+    logger.debug("end test_serve");
+  }
+
+  @Test
+  public void test_notModified() throws Exception {
+    logger.debug("begin test_notModified");
+    final Page page = makePage(HTML, null);
+    final PageContent content = page.getContent();
+
+    StubResponse stub = serve(page, "GET", 200, Map.of("If-None-Match", content.etag));
+    assertEquals(304, stub.status);
+    assertEquals(0, stub.body.size());
+    assertEquals(content.etag, stub.headers.get("ETag"));
+
+    assertEquals(304, serve(page, "HEAD", 200, Map.of("If-None-Match", "\"other\", " + content.etag)).status);
+    assertEquals(304, serve(page, "GET", 200, Map.of("If-None-Match", "*")).status);
+    assertEquals(304, serve(page, "GET", 200, Map.of("If-None-Match", content.gzipETag, "Accept-Encoding", "gzip"))
+        .status);
+
+    // a weak validator matches its strong counterpart
+    assertEquals(304, serve(page, "GET", 200, Map.of("If-None-Match", "W/" + content.etag)).status);
+    assertEquals(304, serve(page, "GET", 200, Map.of("If-None-Match", "W/\"other\", W/" + content.etag)).status);
+    assertEquals(200, serve(page, "GET", 200, Map.of("If-None-Match", "W/\"other\"")).status);
+
+    // the plain ETag doesn't match the gzip'ed variant, or the other way round
+    assertEquals(200, serve(page, "GET", 200, Map.of("If-None-Match", content.etag, "Accept-Encoding", "gzip")).status);
+    assertEquals(200, serve(page, "GET", 200, Map.of("If-None-Match", content.gzipETag)).status);
+
+    // If-Modified-Since, at or after the last modification, to the second
+    assertEquals(304, serve(page, "GET", 200, Map.of("If-Modified-Since", httpDate(MODIFIED_MILLIS))).status);
+    assertEquals(304, serve(page, "GET", 200, Map.of("If-Modified-Since", httpDate(MODIFIED_MILLIS + 5000))).status);
+    assertEquals(200, serve(page, "GET", 200, Map.of("If-Modified-Since", httpDate(MODIFIED_MILLIS - 1000))).status);
+    assertEquals(200, serve(page, "GET", 200, Map.of("If-Modified-Since", "yesterday")).status);
+
+    // If-None-Match takes precedence
+    assertEquals(200, serve(page, "GET", 200,
+        Map.of("If-None-Match", "\"other\"", "If-Modified-Since", httpDate(MODIFIED_MILLIS))).status);
+
+    // only a 200 to a GET or HEAD is conditional
+    stub = serve(page, "POST", 200, Map.of("If-None-Match", content.etag));
+    assertEquals(200, stub.status);
+    assertEquals(HTML, stub.body.toString(StandardCharsets.UTF_8));
+    stub = serve(page, "GET", 404, Map.of("If-None-Match", content.etag));
+    assertEquals(404, stub.status);
+    assertEquals(HTML, stub.body.toString(StandardCharsets.UTF_8));
+    logger.debug("end test_notModified");
+  }
+
+  @Test
+  public void test_reload() throws Exception {
+    logger.debug("begin test_reload");
+    final Page page = makePage(HTML, "<p>fallback</p>");
+    final PageContent content = page.getContent();
+
+    Files.writeString(page.getPath(), HTML + "\n<!-- changed -->");
+    assertTrue(page.reload());
+    assertNotEquals(content.etag, page.getContent().etag);
+    assertTrue(new String(page.getContent().bytes, StandardCharsets.UTF_8).endsWith("<!-- changed -->"));
+
+    // a failed reload keeps what we had, rather than the fallback
+    final PageContent changedContent = page.getContent();
+    Files.delete(page.getPath());
+    assertTrue(page.reload());
+    assertEquals(changedContent, page.getContent());
+
+    // until there's nothing to keep
+    page.invalidate();
+    assertEquals("<p>fallback</p>", new String(page.getContent().bytes, StandardCharsets.UTF_8));
+
+    final Page noFallbackPage = makePage(null, null);
+    assertFalse(noFallbackPage.reload());
+    assertNull(noFallbackPage.getContent());
+    logger.debug("end test_reload");
+  }
+
+  @Test
+  public void test_makeETag() {
+    logger.debug("begin test_makeETag");
+    final String etag = StaticPageCache.makeETag(HTML.getBytes(StandardCharsets.UTF_8));
+    assertEquals(24, etag.length());
+    assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+    assertEquals(etag, StaticPageCache.makeETag(HTML.getBytes(StandardCharsets.UTF_8)));
+    assertNotEquals(etag, StaticPageCache.makeETag("other".getBytes(StandardCharsets.UTF_8)));
+    logger.debug("end test_makeETag");
+  }
+}
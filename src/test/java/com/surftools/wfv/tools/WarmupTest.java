@@ -0,0 +1,79 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wfv.config.IConfigurationManager;
+import com.surftools.wfv.config.PropertyFileConfigurationManager;
+import com.surftools.wfv.forms.FormUtils;
+import com.surftools.wfv.forms.WinlinkExpressViewerStreamParser;
+import com.surftools.wfv.tools.Metrics.Stage;
+
+public class WarmupTest {
+  private static final Logger logger = LoggerFactory.getLogger(WarmupTest.class);
+  private static final String DEFAULT_CONFIG_FILE_NAME = "conf/fv.conf";
+
+  @Test
+  public void test_warmup() throws Exception {
+    logger.debug("begin test_warmup");
+    final IConfigurationManager cm = new PropertyFileConfigurationManager(DEFAULT_CONFIG_FILE_NAME);
+    final FormUtils formUtils = new FormUtils(cm);
+    final List<String> formNames = Warmup.getFormNames(formUtils);
+    assertFalse(formNames.isEmpty());
+
+    final long requestRenders = Metrics.getDefault().getStageCount(Stage.RENDER);
+    final Warmup warmup = new Warmup(new FormRenderer(cm, formUtils), 100, 10_000);
+    assertEquals(formNames.size(), warmup.run());
+    assertTrue(warmup.getRenderCount() >= 100);
+    assertEquals(0, warmup.getFailureCount());
+
+    // the forms are compiled and cached, but the request metrics haven't changed
+    assertEquals(formNames.size(), formUtils.getTemplateCache().size());
+    assertEquals(requestRenders, Metrics.getDefault().getStageCount(Stage.RENDER));
+    logger.debug("end test_warmup");
+  }
+
+  @Test
+  public void test_makeView() throws Exception {
+    logger.debug("begin test_makeView");
+    final WinlinkExpressViewerStreamParser parser = new WinlinkExpressViewerStreamParser();
+    assertNull(parser.parse(Warmup.makeView("Q&A <Viewer>.html"), false));
+    assertEquals("Q&A <Viewer>.html", parser.getValue("display_form"));
+    assertEquals("\"Warm Up\"", parser.getValue("from_name"));
+    logger.debug("end test_makeView");
+  }
+}
@@ -0,0 +1,204 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wfv.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ZipExtractorTest {
+  private static final Logger logger = LoggerFactory.getLogger(ZipExtractorTest.class);
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void test_extract() throws Exception {
+    logger.debug("begin test_extract");
+    final Path zipPath = tmpFolder.getRoot().toPath().resolve("forms.zip");
+    try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+      zip.putNextEntry(new ZipEntry("Standard_Forms_Version.dat"));
+      zip.write("1.0.142.0".getBytes(StandardCharsets.UTF_8));
+      zip.putNextEntry(new ZipEntry("ICS USA Forms/"));
+      for (int i = 0; i < 50; ++i) {
+        zip.putNextEntry(new ZipEntry("ICS USA Forms/ICS" + i + "_Viewer.html"));
+        zip.write(("<html>{var field" + i + "}</html>\n").repeat(i + 1).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    final Path targetPath = tmpFolder.getRoot().toPath().resolve("out");
+    final ZipExtractor extractor = new ZipExtractor(4);
+    try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+      extractor.extract(zipFile, targetPath);
+    }
+    assertEquals(51, extractor.getEntryCount());
+    assertEquals("1.0.142.0", Files.readString(targetPath.resolve("Standard_Forms_Version.dat")));
+    assertEquals("<html>{var field7}</html>\n".repeat(8),
+        Files.readString(targetPath.resolve("ICS USA Forms/ICS7_Viewer.html")));
+    logger.debug("end test_extract");
+  }
+
+  @Test
+  public void test_incremental() throws Exception {
+    logger.debug("begin test_incremental");
+    final Path root = tmpFolder.getRoot().toPath();
+    final Path oldZipPath = root.resolve("old.zip");
+    final Path newZipPath = root.resolve("new.zip");
+    writeZip(oldZipPath, "1.0.142.0", "same", "before");
+    writeZip(newZipPath, "1.0.143.0", "same", "after");
+
+    final Path oldPath = root.resolve("StandardForms-10142");
+    final FileManifest oldManifest;
+    try (ZipFile zipFile = new ZipFile(oldZipPath.toFile())) {
+      new ZipExtractor(2).extract(zipFile, oldPath);
+      oldManifest = FileManifest.of(zipFile);
+    }
+
+    final Path newPath = root.resolve("StandardForms-10143");
+    final ZipExtractor extractor = new ZipExtractor(2);
+    try (ZipFile zipFile = new ZipFile(newZipPath.toFile())) {
+      extractor.extract(zipFile, newPath, oldPath, oldManifest);
+    }
+    assertEquals(2, extractor.getEntryCount());
+    assertEquals(1, extractor.getLinkCount());
+    assertTrue(Files.isSameFile(oldPath.resolve("forms/Same_Viewer.html"), newPath.resolve("forms/Same_Viewer.html")));
+    assertEquals("after", Files.readString(newPath.resolve("forms/Changed_Viewer.html")));
+    assertEquals("before", Files.readString(oldPath.resolve("forms/Changed_Viewer.html")));
+    assertEquals("1.0.143.0", Files.readString(newPath.resolve("Standard_Forms_Version.dat")));
+    logger.debug("end test_incremental");
+  }
+
+  @Test
+  public void test_incrementalEditedByHand() throws Exception {
+    logger.debug("begin test_incrementalEditedByHand");
+    final Path root = tmpFolder.getRoot().toPath();
+    final Path oldZipPath = root.resolve("old.zip");
+    final Path newZipPath = root.resolve("new.zip");
+    writeZip(oldZipPath, "1.0.142.0", "same", "before");
+    writeZip(newZipPath, "1.0.143.0", "same", "after");
+
+    final Path oldPath = root.resolve("StandardForms-10142");
+    final FileManifest oldManifest;
+    try (ZipFile zipFile = new ZipFile(oldZipPath.toFile())) {
+      new ZipExtractor(2).extract(zipFile, oldPath);
+      oldManifest = FileManifest.of(zipFile);
+    }
+    // same size, different content
+    Files.writeString(oldPath.resolve("forms/Same_Viewer.html"), "SAME");
+
+    final Path newPath = root.resolve("StandardForms-10143");
+    final ZipExtractor extractor = new ZipExtractor(2);
+    try (ZipFile zipFile = new ZipFile(newZipPath.toFile())) {
+      extractor.extract(zipFile, newPath, oldPath, oldManifest);
+    }
+    assertEquals(3, extractor.getEntryCount());
+    assertEquals(0, extractor.getLinkCount());
+    assertFalse(Files.isSameFile(oldPath.resolve("forms/Same_Viewer.html"), newPath.resolve("forms/Same_Viewer.html")));
+    assertEquals("same", Files.readString(newPath.resolve("forms/Same_Viewer.html")));
+    logger.debug("end test_incrementalEditedByHand");
+  }
+
+  private static void writeZip(Path zipPath, String version, String same, String changed) throws Exception {
+    try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+      zip.putNextEntry(new ZipEntry("Standard_Forms_Version.dat"));
+      zip.write(version.getBytes(StandardCharsets.UTF_8));
+      zip.putNextEntry(new ZipEntry("forms/Same_Viewer.html"));
+      zip.write(same.getBytes(StandardCharsets.UTF_8));
+      zip.putNextEntry(new ZipEntry("forms/Changed_Viewer.html"));
+      zip.write(changed.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void test_outsideTarget() throws Exception {
+    logger.debug("begin test_outsideTarget");
+    final Path zipPath = tmpFolder.getRoot().toPath().resolve("evil.zip");
+    try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+      zip.putNextEntry(new ZipEntry("../../evil.html"));
+      zip.write("evil".getBytes(StandardCharsets.UTF_8));
+    }
+
+    final Path targetPath = tmpFolder.newFolder("out").toPath();
+    try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+      new ZipExtractor(2).extract(zipFile, targetPath);
+      fail("expected IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("outside"));
+    }
+    logger.debug("end test_outsideTarget");
+  }
+
+  @Test
+  public void test_badCrc() throws Exception {
+    logger.debug("begin test_badCrc");
+    final byte[] content = "<html>a form that gets corrupted</html>".getBytes(StandardCharsets.UTF_8);
+    final Path zipPath = tmpFolder.getRoot().toPath().resolve("corrupt.zip");
+    try (OutputStream outputStream = Files.newOutputStream(zipPath);
+        ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+      // stored, so that flipping a byte can't break the inflater first
+      ZipEntry entry = new ZipEntry("form.html");
+      entry.setMethod(ZipEntry.STORED);
+      entry.setSize(content.length);
+      CRC32 crc = new CRC32();
+      crc.update(content);
+      entry.setCrc(crc.getValue());
+      zip.putNextEntry(entry);
+      zip.write(content);
+    }
+
+    final byte[] bytes = Files.readAllBytes(zipPath);
+    final int offset = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("corrupted");
+    bytes[offset] = 'C';
+    Files.write(zipPath, bytes);
+
+    try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+      new ZipExtractor(2).extract(zipFile, tmpFolder.newFolder("out").toPath());
+      fail("expected IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("CRC"));
+    }
+    logger.debug("end test_badCrc");
+  }
+}